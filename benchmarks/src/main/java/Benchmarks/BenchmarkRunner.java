@@ -0,0 +1,30 @@
+package Benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result includes the bytes allocated per operation.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [benchmarkRegex] [resultFile]}, e.g. {@code JsonUtils} to run only
+ * the JSON benchmarks. Results are also written as JSON to the result file (default jmh-result.json) so runs
+ * can be compared.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "Benchmarks\\..*")
+                .addProfiler(GCProfiler.class)
+                .timeout(TimeValue.minutes(10))
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 1 ? args[1] : "jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
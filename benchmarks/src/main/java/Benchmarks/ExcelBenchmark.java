@@ -0,0 +1,127 @@
+package Benchmarks;
+
+import Utilities.ExcelDataDriven;
+import Utilities.StreamingSheetReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures reading a data-driven sheet and writing a report workbook.
+ * Each benchmark also counts the rows it processed, so JMH reports rows/sec next to the operation rate;
+ * the GC profiler's gc.alloc.rate.norm divided by the size's row count gives the bytes allocated per row.
+ * <p>
+ * The workbooks are generated below src/test/resources/TestData of the working directory, where
+ * {@link ExcelDataDriven} looks for them, and are deleted together with the written reports after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ExcelBenchmark {
+
+    private static final String RESULTS_DIRECTORY_GLOB = "DataDrivenResults_*";
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private InputSize size;
+
+    private String workbookName;
+    private Path workbook;
+    private List<LinkedHashMap<String, String>> reportRows;
+    private Set<Path> existingResultsDirectories;
+
+    /**
+     * Counts the processed rows; JMH reports it as a rate next to the benchmark score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbookName = "Benchmark_" + size;
+        workbook = Paths.get("src/test/resources/TestData", workbookName + ".xlsx");
+        SyntheticWorkbookGenerator.generate(workbook, size.getRows(), 8);
+
+        reportRows = new ArrayList<>(size.getRows());
+        for (int i = 0; i < size.getRows(); i++) {
+            LinkedHashMap<String, String> row = SyntheticWorkbookGenerator.row(i, 8, 2);
+            row.put("PassOrFail", i % 10 == 0 ? "FAIL" : "PASS");
+            row.put("ResponseBody", i % 10 == 0 ? "{\"error\": \"Not Found\"}" : "");
+            row.put("ResponseStatusCode", i % 10 == 0 ? "HTTP/1.1 404 Not Found" : "HTTP/1.1 200 OK");
+            reportRows.add(row);
+        }
+        existingResultsDirectories = resultsDirectories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(workbook);
+        for (Path directory : resultsDirectories()) {
+            if (!existingResultsDirectories.contains(directory)) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<LinkedHashMap<String, String>> loadDSheetData(RowCounter counter) throws Exception {
+        List<LinkedHashMap<String, String>> rows = ExcelDataDriven.loadDSheetData(workbookName, SyntheticWorkbookGenerator.SHEET_NAME);
+        counter.rows += rows.size();
+        return rows;
+    }
+
+    @Benchmark
+    public void streamSheetRows(RowCounter counter, Blackhole blackhole) throws IOException {
+        try (StreamingSheetReader reader = StreamingSheetReader.open(workbook.toFile(), SyntheticWorkbookGenerator.SHEET_NAME)) {
+            while (reader.hasNext()) {
+                blackhole.consume(reader.next());
+                counter.rows++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeDataToExcel(RowCounter counter) throws Exception {
+        ExcelDataDriven.writeDataToExcel(reportRows, workbookName + "_report", SyntheticWorkbookGenerator.SHEET_NAME);
+        counter.rows += reportRows.size();
+    }
+
+    private static Set<Path> resultsDirectories() throws IOException {
+        Set<Path> directories = new HashSet<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(Paths.get(System.getProperty("user.dir")), RESULTS_DIRECTORY_GLOB)) {
+            for (Path path : paths) {
+                directories.add(path);
+            }
+        }
+        return directories;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<Path> sorted = new ArrayList<>();
+            paths.forEach(sorted::add);
+            Collections.reverse(sorted);
+            for (Path path : sorted) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
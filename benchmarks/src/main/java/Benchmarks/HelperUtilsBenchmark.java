@@ -0,0 +1,34 @@
+package Benchmarks;
+
+import Utilities.helperUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a path or query parameter cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class HelperUtilsBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private InputSize size;
+
+    private String parameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parameters = SyntheticWorkbookGenerator.parameters(size.getParameters());
+    }
+
+    @Benchmark
+    public Map<String, String> loadParameters() {
+        return helperUtils.loadParameters(parameters);
+    }
+}
@@ -0,0 +1,41 @@
+package Benchmarks;
+
+/**
+ * The input sizes every benchmark is run at.
+ */
+public enum InputSize {
+    SMALL(5, 3, 100),
+    MEDIUM(50, 20, 5_000),
+    LARGE(500, 200, 50_000);
+
+    private final int jsonFields;
+    private final int parameters;
+    private final int rows;
+
+    InputSize(int jsonFields, int parameters, int rows) {
+        this.jsonFields = jsonFields;
+        this.parameters = parameters;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the number of fields of the generated JSON headers and request bodies.
+     */
+    public int getJsonFields() {
+        return jsonFields;
+    }
+
+    /**
+     * Returns the number of key=value pairs of the generated path and query parameters.
+     */
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the number of data rows of the generated workbook.
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,47 @@
+package Benchmarks;
+
+import Utilities.JsonUtils;
+import Utilities.PayloadTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a JSON cell and rendering a request body template, both by parsing the template per request
+ * and from a pre-compiled {@link PayloadTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JsonUtilsBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private InputSize size;
+
+    private String jsonTemplate;
+    private PayloadTemplate payloadTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonTemplate = SyntheticWorkbookGenerator.jsonTemplate(size.getJsonFields());
+        payloadTemplate = PayloadTemplate.compile(jsonTemplate);
+    }
+
+    @Benchmark
+    public Object parseJsonObject() {
+        return JsonUtils.parseJsonObject(jsonTemplate);
+    }
+
+    @Benchmark
+    public Object randomRequestJsonObject() {
+        return JsonUtils.randomRequestJsonObject(jsonTemplate);
+    }
+
+    @Benchmark
+    public String renderPayloadTemplate() {
+        return payloadTemplate.render();
+    }
+}
@@ -0,0 +1,110 @@
+package Benchmarks;
+
+import Utilities.ExcelReportWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+
+/**
+ * Generates data-driven workbooks of any size with the same columns as the real test data sheets.
+ * Rows cycle through the HTTP methods and mix literal values with $Random keywords in their request bodies.
+ * <p>
+ * Usage: {@code SyntheticWorkbookGenerator <rows> [bodyFields] [outputFile]}
+ */
+public class SyntheticWorkbookGenerator {
+
+    public static final String SHEET_NAME = "APIs_DATA";
+
+    private static final String[] METHODS = {"Get", "Post", "Put", "Patch", "Delete"};
+    private static final String[] RANDOM_KEYWORDS = {"$RandomFullName", "$RandomEmail", "$RandomFirstName",
+            "$RandomComputerIP", "$RandomPastDate", "$RandomBooleanValue"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticWorkbookGenerator <rows> [bodyFields] [outputFile]");
+            System.exit(1);
+        }
+        int rows = Integer.parseInt(args[0]);
+        int bodyFields = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Path file = Paths.get(args.length > 2 ? args[2] : "SyntheticDataDriven_" + rows + ".xlsx");
+        generate(file, rows, bodyFields);
+        System.out.println("Generated " + rows + " rows in " + file.toAbsolutePath());
+    }
+
+    /**
+     * Writes a workbook with the given number of data rows to a file.
+     *
+     * @param file       The xlsx file to create. Missing parent directories are created.
+     * @param rows       The number of data rows.
+     * @param bodyFields The number of fields of each request body.
+     * @throws IOException If the workbook cannot be written.
+     */
+    public static void generate(Path file, int rows, int bodyFields) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (ExcelReportWriter writer = new ExcelReportWriter(file, SHEET_NAME, ExcelReportWriter.DEFAULT_ROW_WINDOW)) {
+            for (int i = 0; i < rows; i++) {
+                writer.writeRow(row(i, bodyFields, 2));
+            }
+        }
+    }
+
+    /**
+     * Creates one data row.
+     *
+     * @param index      The position of the row, which selects its method and values.
+     * @param bodyFields The number of fields of the request body.
+     * @param parameters The number of query parameters.
+     * @return The row, mapping column names to cell values.
+     */
+    public static LinkedHashMap<String, String> row(int index, int bodyFields, int parameters) {
+        String method = METHODS[index % METHODS.length];
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("Basepath", "users/{id}");
+        row.put("PathParameters", "id=" + index);
+        row.put("QueryParameters", parameters(parameters));
+        row.put("Headers", "{\r\n\"Content-Type\" : \"application/json\"\r\n}");
+        row.put("Method", method);
+        row.put("RequestBody", "Get".equals(method) || "Delete".equals(method) ? "" : jsonTemplate(bodyFields));
+        row.put("StatusCode", "Post".equals(method) ? "201" : "200");
+        return row;
+    }
+
+    /**
+     * Creates a JSON object template in which every other value is a $Random keyword.
+     *
+     * @param fields The number of fields.
+     * @return The pretty-printed JSON object, as it would be typed into a sheet cell.
+     */
+    public static String jsonTemplate(int fields) {
+        StringBuilder json = new StringBuilder("{\r\n");
+        for (int i = 0; i < fields; i++) {
+            String value = i % 2 == 0 ? RANDOM_KEYWORDS[(i / 2) % RANDOM_KEYWORDS.length] : "value " + i;
+            json.append("  \"field").append(i).append("\": \"").append(value).append('"');
+            json.append(i < fields - 1 ? ",\r\n" : "\r\n");
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Creates a "key1=value1, key2=value2" parameter cell.
+     *
+     * @param count The number of parameters.
+     * @return The parameter cell.
+     */
+    public static String parameters(int count) {
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                parameters.append(", ");
+            }
+            parameters.append("param").append(i).append('=').append("value").append(i);
+        }
+        return parameters.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package Utilities;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes log entries from a background thread so request threads never wait on the console or a log file.
+ * Entries are queued in a bounded queue; when it is full, new entries are dropped and counted instead of
+ * blocking the caller.
+ */
+public class AsyncLogWriter implements Closeable {
+
+    private final BlockingQueue<String> entries;
+    private final PrintStream output;
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param output   The stream the entries are written to.
+     * @param capacity The number of entries that may wait to be written.
+     */
+    public AsyncLogWriter(PrintStream output, int capacity) {
+        this.output = output;
+        this.entries = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.writerThread = new Thread(this::drain, "async-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        this.shutdownHook = new Thread(this::flushRemaining, "async-log-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues an entry to be written.
+     *
+     * @param entry The text of the entry.
+     */
+    public void write(String entry) {
+        if (closed) {
+            return;
+        }
+        if (!entries.offer(entry)) {
+            droppedEntries.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the queued entries, stops the background thread and closes the output unless it is standard output.
+     * Entries written after the writer has been closed are ignored.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and runs the hook itself
+        }
+        flushRemaining();
+        if (output != System.out && output != System.err) {
+            output.close();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                writeEntry(entries.take());
+                if (entries.isEmpty()) {
+                    output.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void writeEntry(String entry) {
+        long dropped = droppedEntries.getAndSet(0);
+        if (dropped > 0) {
+            output.println("[" + dropped + " log entries dropped because the log queue was full]");
+        }
+        output.println(entry);
+    }
+
+    private void flushRemaining() {
+        String entry;
+        while ((entry = entries.poll()) != null) {
+            writeEntry(entry);
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,241 @@
+package Utilities;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking alternative to {@link RestUtils} built on the JDK {@link HttpClient}.
+ * Requests are sent with {@code sendAsync}, so a small pool of threads can keep thousands of requests in flight.
+ * Responses are converted to RestAssured {@link Response} objects so callers can treat both transports alike.
+ */
+public class AsyncRestUtils {
+
+    // Headers the JDK HttpClient sets itself and rejects when they are set on a request
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList("connection", "content-length", "date", "expect",
+            "from", "host", "upgrade", "via", "warning"));
+
+    private static HttpClient httpClient;
+    private static ExecutorService httpExecutor;
+    private static Duration requestTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Configures the shared HTTP client. Settings used: "asyncThreads" (default 4),
+     * "connectTimeoutMs" (default 30000) and "requestTimeoutMs" (default 60000).
+     * Calling this again replaces the client, so it should be done before any request is sent.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     */
+    public static synchronized void configure(RunConfig runConfig) {
+        if (httpExecutor != null) {
+            httpExecutor.shutdown();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        httpExecutor = Executors.newFixedThreadPool(Math.max(1, runConfig.getInt("asyncThreads", 4)), runnable -> {
+            Thread thread = new Thread(runnable, "async-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        requestTimeout = Duration.ofMillis(runConfig.getLong("requestTimeoutMs", 60000));
+        httpClient = HttpClient.newBuilder()
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofMillis(runConfig.getLong("connectTimeoutMs", 30000)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static synchronized HttpClient getClient() {
+        if (httpClient == null) {
+            configure(new RunConfig(null));
+        }
+        return httpClient;
+    }
+
+    /**
+     * Sends a request asynchronously.
+     *
+     * @param method          the HTTP method (GET, POST, PUT, DELETE, PATCH)
+     * @param baseUrl         the base URL of the API
+     * @param basePath        the base path of the API, may contain {name} path parameter placeholders
+     * @param requestPayload  the payload for the request, can be null
+     * @param pathParameters  the path parameters for the request, can be null
+     * @param queryParameters the query parameters for the request, can be null
+     * @param headers         the headers for the request, can be null
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performAsync(String method, String baseUrl, String basePath, Object requestPayload,
+                                                           Map<String, String> pathParameters, Map<String, String> queryParameters,
+                                                           Map<String, String> headers) {
+        HttpRequest request;
+        try {
+            request = buildRequest(method, baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return getClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(AsyncRestUtils::toResponse);
+    }
+
+    /**
+     * Performs a GET request asynchronously.
+     *
+     * @param baseUrl  the base URL of the API
+     * @param basePath the base path of the API
+     * @param headers  the headers for the request
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performGetAsync(String baseUrl, String basePath, Map<String, String> headers) {
+        return performAsync("GET", baseUrl, basePath, null, null, null, headers);
+    }
+
+    /**
+     * Performs a POST request asynchronously.
+     *
+     * @param baseUrl        the base URL of the API
+     * @param basePath       the base path of the API
+     * @param requestPayload the payload for the request
+     * @param headers        the headers for the request
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performPostAsync(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
+        return performAsync("POST", baseUrl, basePath, requestPayload, null, null, headers);
+    }
+
+    /**
+     * Performs a PUT request asynchronously.
+     *
+     * @param baseUrl        the base URL of the API
+     * @param basePath       the base path of the API
+     * @param requestPayload the payload for the request
+     * @param headers        the headers for the request
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performPutAsync(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
+        return performAsync("PUT", baseUrl, basePath, requestPayload, null, null, headers);
+    }
+
+    /**
+     * Performs a PATCH request asynchronously.
+     *
+     * @param baseUrl        the base URL of the API
+     * @param basePath       the base path of the API
+     * @param requestPayload the payload for the request
+     * @param headers        the headers for the request
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performPatchAsync(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
+        return performAsync("PATCH", baseUrl, basePath, requestPayload, null, null, headers);
+    }
+
+    /**
+     * Performs a DELETE request asynchronously.
+     *
+     * @param baseUrl  the base URL of the API
+     * @param basePath the base path of the API
+     * @param headers  the headers for the request
+     * @return a future completed with the response of the request
+     */
+    public static CompletableFuture<Response> performDeleteAsync(String baseUrl, String basePath, Map<String, String> headers) {
+        return performAsync("DELETE", baseUrl, basePath, null, null, null, headers);
+    }
+
+    /**
+     * Builds the JDK request for the given request data.
+     */
+    private static HttpRequest buildRequest(String method, String baseUrl, String basePath, Object requestPayload,
+                                            Map<String, String> pathParameters, Map<String, String> queryParameters,
+                                            Map<String, String> headers) {
+        HttpRequest.BodyPublisher bodyPublisher;
+        if (requestPayload == null || (requestPayload instanceof String && ((String) requestPayload).isEmpty())) {
+            bodyPublisher = HttpRequest.BodyPublishers.noBody();
+        } else if (requestPayload instanceof byte[]) {
+            bodyPublisher = HttpRequest.BodyPublishers.ofByteArray((byte[]) requestPayload);
+        } else {
+            bodyPublisher = HttpRequest.BodyPublishers.ofString(String.valueOf(requestPayload), StandardCharsets.UTF_8);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(buildUri(baseUrl, basePath, pathParameters, queryParameters))
+                .timeout(requestTimeout)
+                .method(method.toUpperCase(), bodyPublisher);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                    continue;
+                }
+                try {
+                    builder.header(header.getKey(), header.getValue());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Dropping header " + header.getKey() + " not accepted by the async transport: " + e.getMessage());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Joins the base URL and base path, substitutes {name} path parameters and appends the encoded query string.
+     */
+    static URI buildUri(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> queryParameters) {
+        String path = basePath == null ? "" : basePath.trim();
+        if (pathParameters != null) {
+            for (Map.Entry<String, String> pathParameter : pathParameters.entrySet()) {
+                path = path.replace("{" + pathParameter.getKey() + "}", encode(pathParameter.getValue()).replace("+", "%20"));
+            }
+        }
+
+        StringBuilder uri = new StringBuilder(baseUrl == null ? "" : baseUrl.trim());
+        if (!path.isEmpty()) {
+            if (uri.length() > 0 && uri.charAt(uri.length() - 1) == '/') {
+                uri.setLength(uri.length() - 1);
+            }
+            if (!path.startsWith("/")) {
+                uri.append('/');
+            }
+            uri.append(path);
+        }
+
+        if (queryParameters != null && !queryParameters.isEmpty()) {
+            char separator = uri.indexOf("?") >= 0 ? '&' : '?';
+            for (Map.Entry<String, String> queryParameter : queryParameters.entrySet()) {
+                uri.append(separator).append(encode(queryParameter.getKey())).append('=').append(encode(queryParameter.getValue()));
+                separator = '&';
+            }
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a JDK response to a RestAssured response.
+     */
+    private static Response toResponse(HttpResponse<byte[]> httpResponse) {
+        List<Header> headerList = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) -> values.forEach(value -> headerList.add(new Header(name, value))));
+
+        String httpVersion = httpResponse.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        ResponseBuilder responseBuilder = new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine(httpVersion + " " + httpResponse.statusCode())
+                .setHeaders(new Headers(headerList))
+                .setBody(httpResponse.body());
+        httpResponse.headers().firstValue("Content-Type").ifPresent(responseBuilder::setContentType);
+        return responseBuilder.build();
+    }
+}
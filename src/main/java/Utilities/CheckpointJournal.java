@@ -0,0 +1,309 @@
+package Utilities;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the rows a run has completed, so a run that is interrupted can be resumed without
+ * sending the completed requests again.
+ * Every result row is appended as soon as it is available; a background thread flushes and fsyncs the journal
+ * every few hundred milliseconds, so the cost of an fsync is shared by all rows completed in that interval.
+ * The journal sits next to the workbook and its name contains the checksum of the workbook, so a journal is only
+ * resumed for the workbook contents it was written for.
+ * <p>
+ * Layout: the magic "DDCJ" and a format version, then one record per row of
+ * {@code int payloadLength}, the payload {@code long rowIndex, int columnCount} followed by each column name and
+ * value, then {@code int variableCount} followed by the name and value of each variable of the row's chain, with
+ * strings as {@code int byteLength} and UTF-8 bytes, and {@code int crc32} of the payload. A record cut short by a
+ * crash fails its length or checksum, and the journal is truncated to the last complete record when it is resumed.
+ */
+public class CheckpointJournal implements Closeable {
+
+    private static final int MAGIC = 0x4444434A; // "DDCJ"
+    private static final int VERSION = 2;
+    private static final String JOURNAL_EXTENSION = ".ddjournal";
+    private static final int MAX_RECORD_LENGTH = 256 * 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final DataOutputStream outputStream;
+    private final Map<Long, JournaledRow> journaledRows;
+    private final Thread syncThread;
+    private final Thread shutdownHook;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(1024);
+    private final DataOutputStream recordStream = new DataOutputStream(recordBuffer);
+    private volatile boolean dirty;
+    private volatile boolean closed;
+
+    private CheckpointJournal(Path file, boolean resume, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            journaledRows = resume ? readRecords() : new HashMap<>();
+            if (!resume || channel.size() == 0) {
+                channel.truncate(0);
+                ByteArrayOutputStream header = new ByteArrayOutputStream(8);
+                DataOutputStream headerStream = new DataOutputStream(header);
+                headerStream.writeInt(MAGIC);
+                headerStream.writeInt(VERSION);
+                channel.write(ByteBuffer.wrap(header.toByteArray()), 0);
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+
+        long syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, syncIntervalMillis));
+        this.syncThread = new Thread(() -> {
+            while (!closed) {
+                LockSupport.parkNanos(syncIntervalNanos);
+                syncQuietly();
+            }
+        }, "checkpoint-journal-sync");
+        this.syncThread.setDaemon(true);
+        this.syncThread.start();
+        // Persist the rows appended since the last sync if the JVM is shut down in the middle of the run
+        this.shutdownHook = new Thread(this::syncQuietly, "checkpoint-journal-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Returns the journal file of a sheet of a workbook.
+     *
+     * @param workbook  The xlsx workbook.
+     * @param sheetName The name of the sheet.
+     * @param suffix    A suffix that keeps the journals of separate runs of the sheet apart, e.g. of shards.
+     * @return The journal file, next to the workbook.
+     * @throws IOException If the workbook cannot be read.
+     */
+    public static Path journalFileFor(File workbook, String sheetName, String suffix) throws IOException {
+        return workbook.toPath().resolveSibling("." + workbook.getName() + "." + TestPlanCache.fileNameKey(sheetName)
+                + suffix + "." + TestPlanCache.workbookChecksum(workbook.toPath()) + JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Opens a journal for a run.
+     *
+     * @param file               The journal file.
+     * @param resume             Whether to read the rows of an existing journal and append to it; otherwise the
+     *                           journal is started afresh.
+     * @param syncIntervalMillis The interval at which appended rows are flushed and fsynced.
+     * @return The journal.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public static CheckpointJournal open(Path file, boolean resume, long syncIntervalMillis) throws IOException {
+        return new CheckpointJournal(file, resume && Files.isRegularFile(file), syncIntervalMillis);
+    }
+
+    /**
+     * @return The number of rows read from the journal that have not been taken yet.
+     */
+    public synchronized int getJournaledRowCount() {
+        return journaledRows.size();
+    }
+
+    /**
+     * Takes the journaled result of a row, if a previous run completed it.
+     *
+     * @param rowIndex The zero-based position of the row in the sheet.
+     * @return The journaled row, or null if the row has not been completed.
+     */
+    public synchronized JournaledRow takeJournaledRow(long rowIndex) {
+        return journaledRows.remove(rowIndex);
+    }
+
+    /**
+     * Appends the result of a completed row. It is durable once the next sync has run.
+     *
+     * @param rowIndex       The zero-based position of the row in the sheet.
+     * @param row            The result row, as written to the report.
+     * @param chainVariables The variables of the row's chain once the row has completed, or null if it is not chained.
+     * @throws IOException If the journal cannot be written.
+     */
+    public synchronized void append(long rowIndex, Map<String, String> row, Map<String, String> chainVariables) throws IOException {
+        if (closed) {
+            return;
+        }
+        recordBuffer.reset();
+        recordStream.writeLong(rowIndex);
+        writeMap(row);
+        writeMap(chainVariables == null ? Collections.emptyMap() : chainVariables);
+        byte[] payload = recordBuffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        outputStream.writeInt(payload.length);
+        outputStream.write(payload);
+        outputStream.writeInt((int) crc.getValue());
+        dirty = true;
+    }
+
+    /**
+     * Syncs and closes the journal, keeping the file so the run can be resumed.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down
+        }
+        sync();
+        synchronized (this) {
+            closed = true;
+            outputStream.close();
+        }
+        LockSupport.unpark(syncThread);
+    }
+
+    /**
+     * Closes and deletes the journal, once every row of the run has been completed and reported.
+     *
+     * @throws IOException If the journal cannot be deleted.
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    private void sync() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            outputStream.flush();
+            dirty = false;
+        }
+        // Forcing outside the lock lets workers keep appending to the buffer meanwhile
+        channel.force(false);
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Error occurred while syncing checkpoint journal " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the complete records of an existing journal and truncates an incomplete record at its end.
+     */
+    private Map<Long, JournaledRow> readRecords() throws IOException {
+        Map<Long, JournaledRow> rows = new HashMap<>();
+        long validEnd = 0;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+                System.err.println("Ignoring " + file + ": it is not a checkpoint journal of version " + VERSION);
+                channel.truncate(0);
+                return rows;
+            }
+            validEnd = 8;
+            while (true) {
+                int length = inputStream.readInt();
+                if (length < 16 || length > MAX_RECORD_LENGTH) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                inputStream.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (inputStream.readInt() != (int) crc.getValue()) {
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long rowIndex = record.readLong();
+                LinkedHashMap<String, String> row = readMap(record);
+                rows.put(rowIndex, new JournaledRow(row, readMap(record)));
+                validEnd += 4 + length + 4;
+            }
+        } catch (EOFException e) {
+            // The journal ends with the last complete record
+        }
+        if (validEnd < channel.size()) {
+            System.err.println("Discarding an incomplete record at the end of checkpoint journal " + file);
+            channel.truncate(validEnd);
+        }
+        return rows;
+    }
+
+    private void writeMap(Map<String, String> values) throws IOException {
+        recordStream.writeInt(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    private static LinkedHashMap<String, String> readMap(DataInputStream inputStream) throws IOException {
+        int size = inputStream.readInt();
+        LinkedHashMap<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            values.put(readString(inputStream), readString(inputStream));
+        }
+        return values;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        recordStream.writeInt(bytes.length);
+        recordStream.write(bytes);
+    }
+
+    private static String readString(DataInputStream inputStream) throws IOException {
+        byte[] bytes = new byte[inputStream.readInt()];
+        inputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The result of a row completed by a previous run, with the variables of its chain at that point.
+     */
+    public static class JournaledRow {
+        private final LinkedHashMap<String, String> row;
+        private final Map<String, String> chainVariables;
+
+        JournaledRow(LinkedHashMap<String, String> row, Map<String, String> chainVariables) {
+            this.row = row;
+            this.chainVariables = chainVariables;
+        }
+
+        /**
+         * @return The result row, as written to the report.
+         */
+        public LinkedHashMap<String, String> getRow() {
+            return row;
+        }
+
+        /**
+         * @return The variables of the row's chain once the row had completed, empty if it is not chained.
+         */
+        public Map<String, String> getChainVariables() {
+            return chainVariables;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package Utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending requests to a host that keeps failing, so a sick dependency fails its rows at once instead of
+ * making every row wait out its timeouts.
+ * Each host has its own circuit. After "circuit.failureThreshold" (default 10, 0 disables the breaker) consecutive
+ * transient failures, as defined by the {@link RetryPolicy} of the run, the circuit opens and the rows for the host
+ * are reported as {@link #CIRCUIT_OPEN} without being sent. After "circuit.openMs" (default 30000) one trial request
+ * is let through: if it succeeds the circuit closes, otherwise it stays open for another interval.
+ */
+public class CircuitBreaker {
+
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Map<String, HostCircuit> circuitsByHost = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the circuit of a host. Values below 1
+     *                         disable the breaker.
+     * @param openMillis       How long a circuit stays open before a trial request is let through.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, openMillis));
+    }
+
+    /**
+     * Creates the breaker of a run from its settings.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     * @return The breaker.
+     */
+    public static CircuitBreaker fromConfig(RunConfig runConfig) {
+        return new CircuitBreaker(runConfig.getInt("circuit.failureThreshold", 10), runConfig.getLong("circuit.openMs", 30000));
+    }
+
+    /**
+     * Asks whether a request may be sent to the host of a URL. Every allowed request must be followed by a call
+     * to {@link #record}.
+     *
+     * @param url The URL the request is sent to.
+     * @return False while the circuit of the host is open.
+     */
+    public boolean allowRequest(String url) {
+        if (failureThreshold < 1) {
+            return true;
+        }
+        HostCircuit circuit = circuitsByHost.get(HostLimiter.hostOf(url));
+        return circuit == null || circuit.allowRequest(System.nanoTime(), openNanos);
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param url     The URL the request was sent to.
+     * @param success False if the request failed transiently.
+     */
+    public void record(String url, boolean success) {
+        if (failureThreshold < 1) {
+            return;
+        }
+        HostCircuit circuit = circuitsByHost.get(HostLimiter.hostOf(url));
+        if (circuit == null) {
+            if (success) {
+                return;
+            }
+            circuit = circuitsByHost.computeIfAbsent(HostLimiter.hostOf(url), host -> new HostCircuit());
+        }
+        if (circuit.record(success, System.nanoTime(), failureThreshold, openNanos)) {
+            System.err.println("Circuit opened for " + HostLimiter.hostOf(url) + " after " + failureThreshold
+                    + " consecutive failures; its requests fail for " + TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms");
+        }
+    }
+
+    /**
+     * Describes why a request was not sent, for the report.
+     *
+     * @param url The URL of the request.
+     * @return The message.
+     */
+    public String describeOpenCircuit(String url) {
+        return "Circuit open for " + HostLimiter.hostOf(url) + ": the request was not sent after " + failureThreshold
+                + " consecutive failures of the host";
+    }
+
+    /**
+     * The state of the circuit of one host.
+     */
+    private static class HostCircuit {
+        private int consecutiveFailures;
+        private boolean open;
+        // While open: when the next trial request may be sent
+        private long retryAtNanos;
+        private boolean trialInFlight;
+
+        synchronized boolean allowRequest(long nowNanos, long openNanos) {
+            if (!open) {
+                return true;
+            }
+            if (nowNanos - retryAtNanos < 0) {
+                return false;
+            }
+            // Half open: let one trial through, and another if the trial never reports back
+            if (trialInFlight && nowNanos - retryAtNanos < openNanos) {
+                return false;
+            }
+            trialInFlight = true;
+            retryAtNanos = nowNanos;
+            return true;
+        }
+
+        /**
+         * @return Whether this outcome opened the circuit.
+         */
+        synchronized boolean record(boolean success, long nowNanos, int failureThreshold, long openNanos) {
+            if (success) {
+                consecutiveFailures = 0;
+                open = false;
+                trialInFlight = false;
+                return false;
+            }
+            consecutiveFailures++;
+            if (open) {
+                if (trialInFlight) {
+                    // The trial failed: stay open for another interval
+                    trialInFlight = false;
+                    retryAtNanos = nowNanos + openNanos;
+                }
+                return false;
+            }
+            if (consecutiveFailures >= failureThreshold) {
+                open = true;
+                retryAtNanos = nowNanos + openNanos;
+                return true;
+            }
+            return false;
+        }
+    }
+}
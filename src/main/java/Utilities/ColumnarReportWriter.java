@@ -0,0 +1,148 @@
+package Utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes report rows in a compact binary, column-oriented layout meant for machines rather than people.
+ * Rows are buffered into row groups; each group is written column by column, and columns with few distinct
+ * values in the group (such as PassOrFail or Method) are dictionary encoded with one byte per row.
+ * <p>
+ * Layout: the magic "DDRC" and a format version, then row groups of
+ * {@code int rowCount, int columnCount} followed by each column as
+ * {@code UTF name, byte encoding, values}, and finally a row group with a row count of 0.
+ * Plain columns store each value as {@code int byteLength} (-1 for a missing value) and its UTF-8 bytes;
+ * dictionary columns store {@code int dictionarySize}, the dictionary values the same way and one unsigned byte per row.
+ */
+public class ColumnarReportWriter implements ReportWriter {
+
+    public static final int MAGIC = 0x44445243; // "DDRC"
+    public static final int VERSION = 1;
+    public static final byte PLAIN_ENCODING = 0;
+    public static final byte DICTIONARY_ENCODING = 1;
+
+    private static final int ROW_GROUP_SIZE = 4096;
+    private static final int MAX_DICTIONARY_SIZE = 255;
+
+    private final Path file;
+    private final DataOutputStream outputStream;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Map<String, String>> rowGroup = new ArrayList<>(ROW_GROUP_SIZE);
+
+    /**
+     * Creates a writer for the given file.
+     *
+     * @param file The file to create. An existing file is replaced.
+     * @throws IOException If the file cannot be created.
+     */
+    public ColumnarReportWriter(Path file) throws IOException {
+        this.file = file;
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        outputStream.writeInt(MAGIC);
+        outputStream.writeInt(VERSION);
+    }
+
+    @Override
+    public void writeRow(Map<String, String> row) throws IOException {
+        for (String key : row.keySet()) {
+            if (!columnNames.contains(key)) {
+                columnNames.add(key);
+            }
+        }
+        rowGroup.add(row);
+        if (rowGroup.size() >= ROW_GROUP_SIZE) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void writeSummary(String summaryName, List<? extends Map<String, String>> rows) throws IOException {
+        try (ColumnarReportWriter summaryWriter = new ColumnarReportWriter(ReportWriter.summaryFile(file, summaryName))) {
+            for (Map<String, String> row : rows) {
+                summaryWriter.writeRow(row);
+            }
+        }
+    }
+
+    /**
+     * Flushes the row groups written so far. Buffered rows are only written once their row group is full or the
+     * writer is closed, since small row groups would lose the benefit of the columnar layout and its dictionaries.
+     */
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeRowGroup();
+            outputStream.writeInt(0);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        if (rowGroup.isEmpty()) {
+            return;
+        }
+        outputStream.writeInt(rowGroup.size());
+        outputStream.writeInt(columnNames.size());
+        for (String columnName : columnNames) {
+            outputStream.writeUTF(columnName);
+            Map<String, Integer> dictionary = buildDictionary(columnName);
+            if (dictionary == null) {
+                outputStream.writeByte(PLAIN_ENCODING);
+                for (Map<String, String> row : rowGroup) {
+                    writeValue(row.get(columnName));
+                }
+            } else {
+                outputStream.writeByte(DICTIONARY_ENCODING);
+                outputStream.writeInt(dictionary.size());
+                for (String value : dictionary.keySet()) {
+                    writeValue(value);
+                }
+                for (Map<String, String> row : rowGroup) {
+                    outputStream.writeByte(dictionary.get(row.get(columnName)));
+                }
+            }
+        }
+        rowGroup.clear();
+    }
+
+    /**
+     * Builds the dictionary of a column in the current row group. A missing value is a null entry of the
+     * dictionary, so it stays distinct from an empty string.
+     *
+     * @return The index of each distinct value, or null if the column has too many distinct values.
+     */
+    private Map<String, Integer> buildDictionary(String columnName) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Map<String, String> row : rowGroup) {
+            String value = row.get(columnName);
+            if (!dictionary.containsKey(value)) {
+                if (dictionary.size() == MAX_DICTIONARY_SIZE || dictionary.size() * 4 > rowGroup.size()) {
+                    return null;
+                }
+                dictionary.put(value, dictionary.size());
+            }
+        }
+        return dictionary;
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            outputStream.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+}
@@ -0,0 +1,156 @@
+package Utilities;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.Method;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Shares one pooled, keep-alive HTTP client between all RestAssured requests of a run.
+ * Settings used: "connectionPool" (default true), "poolMaxTotal" (default 200), "poolMaxPerRoute" (default 50),
+ * "keepAliveMs" (how long an idle connection is kept when the server does not say; default 30000) and
+ * "poolIdleTimeoutMs" (idle connections older than this are evicted; default 30000).
+ */
+public class ConnectionPoolManager {
+
+    private static PoolingClientConnectionManager connectionManager;
+    private static RestAssuredConfig restAssuredConfig;
+    private static ScheduledExecutorService evictionExecutor;
+
+    /**
+     * Creates the shared connection pool, replacing any previous one.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     */
+    public static synchronized void configure(RunConfig runConfig) {
+        shutdown();
+        if (!runConfig.getBoolean("connectionPool", true)) {
+            RestUtils.clearBaseRequestSpecifications();
+            return;
+        }
+
+        long keepAliveMs = runConfig.getLong("keepAliveMs", 30000);
+        long idleTimeoutMs = runConfig.getLong("poolIdleTimeoutMs", 30000);
+        PoolingClientConnectionManager poolingManager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+        poolingManager.setMaxTotal(runConfig.getInt("poolMaxTotal", 200));
+        poolingManager.setDefaultMaxPerRoute(runConfig.getInt("poolMaxPerRoute", 50));
+
+        DefaultHttpClient httpClient = new DefaultHttpClient(poolingManager);
+        httpClient.setKeepAliveStrategy(keepAliveStrategy(keepAliveMs));
+
+        connectionManager = poolingManager;
+        restAssuredConfig = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> httpClient));
+
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkIntervalMs = Math.max(1000, idleTimeoutMs / 2);
+        evictionExecutor.scheduleWithFixedDelay(() -> {
+            poolingManager.closeExpiredConnections();
+            poolingManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+
+        RestUtils.clearBaseRequestSpecifications();
+    }
+
+    /**
+     * Returns the RestAssured configuration using the shared pool.
+     *
+     * @return The configuration, or null if pooling is disabled or not configured.
+     */
+    public static synchronized RestAssuredConfig getRestAssuredConfig() {
+        return restAssuredConfig;
+    }
+
+    /**
+     * Resolves the host of the base URL and opens pooled connections to it before the first row is sent,
+     * so the rows do not pay for DNS lookups and TCP/TLS handshakes. Failures are reported but not fatal.
+     *
+     * @param baseUrl     The base URL of the environment.
+     * @param connections The number of connections to open.
+     */
+    public static void warmUp(String baseUrl, int connections) {
+        if (baseUrl == null || connections < 1) {
+            return;
+        }
+        try {
+            InetAddress.getAllByName(URI.create(baseUrl.trim()).getHost());
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            System.err.println("Unable to resolve host of " + baseUrl + ": " + e.getMessage());
+            return;
+        }
+
+        ExecutorService warmUpExecutor = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                requests.add(warmUpExecutor.submit(() -> {
+                    RestUtils.buildRequestSpecification(baseUrl, "", null, null, null, null).request(Method.HEAD);
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        } catch (ExecutionException e) {
+            System.err.println("Connection warm-up failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            warmUpExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Closes all pooled connections and stops the idle connection eviction.
+     */
+    public static synchronized void shutdown() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+            evictionExecutor = null;
+        }
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+            connectionManager = null;
+        }
+        restAssuredConfig = null;
+    }
+
+    /**
+     * Keeps connections alive for as long as the server's Keep-Alive header allows, or the given default.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMs) {
+        return (response, context) -> {
+            HeaderElementIterator elements = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (elements.hasNext()) {
+                HeaderElement element = elements.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException e) {
+                        // Fall back to the default
+                    }
+                }
+            }
+            return defaultKeepAliveMs;
+        };
+    }
+}
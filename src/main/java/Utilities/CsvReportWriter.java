@@ -0,0 +1,103 @@
+package Utilities;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes report rows as RFC 4180 CSV. The header line is taken from the keys of the first row.
+ */
+public class CsvReportWriter implements ReportWriter {
+
+    private final Path file;
+    private final Writer writer;
+    private List<String> columnNames;
+    private boolean warnedAboutNewColumns;
+
+    /**
+     * Creates a writer for the given file.
+     *
+     * @param file The CSV file to create. An existing file is replaced.
+     * @throws IOException If the file cannot be created.
+     */
+    public CsvReportWriter(Path file) throws IOException {
+        this.file = file;
+        this.writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void writeRow(Map<String, String> row) throws IOException {
+        if (columnNames == null) {
+            columnNames = new ArrayList<>(row.keySet());
+            writeLine(columnNames);
+        } else if (!warnedAboutNewColumns && !columnNames.containsAll(row.keySet())) {
+            warnedAboutNewColumns = true;
+            System.err.println("CSV report ignores columns that are not in the header row: " + row.keySet());
+        }
+
+        List<String> values = new ArrayList<>(columnNames.size());
+        for (String columnName : columnNames) {
+            values.add(row.get(columnName));
+        }
+        writeLine(values);
+    }
+
+    @Override
+    public void writeSummary(String summaryName, List<? extends Map<String, String>> rows) throws IOException {
+        try (CsvReportWriter summaryWriter = new CsvReportWriter(ReportWriter.summaryFile(file, summaryName))) {
+            for (Map<String, String> row : rows) {
+                summaryWriter.writeRow(row);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeLine(List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
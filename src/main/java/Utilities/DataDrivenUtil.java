@@ -1,17 +1,35 @@
 package Utilities;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public class DataDrivenUtil {
 
-    private Response response;
+    public static final String ROW_ID_COLUMN = "RowId";
+
     private final String projectPath = System.getProperty("user.dir");
     private Properties environmentProperties;
+    private RunConfig runConfig = new RunConfig(null);
+    private EndpointLatencies latencies = new EndpointLatencies();
+    private ResponseCapture responseCapture = ResponseCapture.fromConfig(runConfig, null, null);
+    private CheckpointJournal checkpointJournal;
+    private RetryPolicy retryPolicy = RetryPolicy.fromConfig(runConfig);
+    private CircuitBreaker circuitBreaker = CircuitBreaker.fromConfig(runConfig);
 
     /**
      * Loads environment data from the specified properties file.
@@ -22,6 +40,7 @@ public class DataDrivenUtil {
         try (FileReader reader = new FileReader(projectPath + "/src/test/resources/" + environment + ".properties")) {
             environmentProperties = new Properties();
             environmentProperties.load(reader);
+            runConfig = new RunConfig(environmentProperties);
         } catch (Exception ex) {
             System.err.println("Error occurred while reading environment file: " + ex.getMessage());
         }
@@ -29,6 +48,22 @@ public class DataDrivenUtil {
 
     /**
      * Executes data-driven API requests based on the provided Excel file and sheet name.
+     * Rows are executed by a pool of "threads" workers (default 1) and at most "maxRequestsPerHost"
+     * requests are in flight against one host. Report rows are always written in sheet order.
+     * Setting "transport" to "async" sends the requests through {@link AsyncRestUtils} instead of RestAssured.
+     * The report is written in each of the comma-separated "reportFormats" (default "xlsx"), see {@link ReportFormats}.
+     * Unless "planCache" is false, the sheet is read from its compiled test plan, see {@link TestPlanCache}.
+     * Unless "validateSheet" is false, every row is planned and validated before the first request is sent.
+     * Request/response logging follows the "logMode" setting, see {@link RequestLogger}.
+     * Random values follow the "randomSeed" and "randomPoolSize" settings, see {@link RandomDataService}.
+     * Failing rows keep a preview of the response body, with long bodies written to files, see {@link ResponseCapture}.
+     * RestAssured requests share a keep-alive connection pool, see {@link ConnectionPoolManager}; setting
+     * "warmupConnections" opens that many connections to the base URL before the first row is sent.
+     * Setting "mode" to "load" replays the sheet as a load test instead, see {@link #executeLoadTest}.
+     * Every report row gets the "ResponseTimeMs" of its request, and the report ends with a "Latency" summary
+     * of the percentiles per endpoint, see {@link EndpointLatencies}.
+     * Transient failures are retried with backoff as set by the "retry." settings, see {@link RetryPolicy}, and rows
+     * for a host that keeps failing are reported as CIRCUIT_OPEN without being sent, see {@link CircuitBreaker}.
      *
      * @param fileName  The name of the Excel file containing the data-driven requests.
      * @param sheetName The name of the sheet within the Excel file.
@@ -36,158 +71,563 @@ public class DataDrivenUtil {
      * @throws InvalidFormatException If the Excel format is invalid.
      */
     public void executeDataDrivenAPIs(String fileName, String sheetName) throws IOException, InvalidFormatException {
-        // Load data from data-driven sheet
-        List<LinkedHashMap<String, String>> testData = ExcelDataDriven.loadDSheetData(fileName, sheetName);
-        List<LinkedHashMap<String, String>> updatedExcelDataList = new ArrayList<>();
+        String baseUrl = environmentProperties.getProperty("baseUrl");
 
-        // Read all keys from the first row
-        Set<String> keys = testData.get(0).keySet();
+        boolean usePlanCache = runConfig.getBoolean("planCache", true);
+        latencies = new EndpointLatencies();
+        ResponseSchemas.clear();
+        TestPlanCache.clearChecksums();
+        if (runConfig.getBoolean("validateSheet", true)) {
+            // Reject a malformed sheet before any request is sent
+            try (SheetRowReader sheetRows = ExcelDataDriven.openSheetData(fileName, sheetName, usePlanCache)) {
+                new RequestPlanner(sheetRows.getColumnNames(), baseUrl).validate(sheetRows);
+            }
+        }
 
-        String baseUrl = environmentProperties.getProperty("baseUrl");
+        RequestLogger.configure(runConfig);
+        RandomDataService.configure(runConfig);
+        retryPolicy = RetryPolicy.fromConfig(runConfig);
+        circuitBreaker = CircuitBreaker.fromConfig(runConfig);
+        boolean asyncTransport = "async".equalsIgnoreCase(runConfig.getString("transport", "restassured"));
+        int threadCount = Math.max(1, runConfig.getInt("threads", 1));
+        if (asyncTransport) {
+            AsyncRestUtils.configure(runConfig);
+        } else {
+            ConnectionPoolManager.configure(runConfig);
+            ConnectionPoolManager.warmUp(baseUrl, runConfig.getInt("warmupConnections", 0));
+        }
+        ShardSelector shard = ShardSelector.fromConfig(runConfig);
+        if (shard.isSharded()) {
+            try (SheetRowReader sheetRows = ExcelDataDriven.openSheetData(fileName, sheetName, usePlanCache)) {
+                shard.selectRows(new RequestPlanner(sheetRows.getColumnNames(), baseUrl), sheetRows);
+            }
+        }
+        if ("load".equalsIgnoreCase(runConfig.getString("mode", "functional"))) {
+            executeLoadTest(fileName, sheetName, baseUrl, usePlanCache, asyncTransport, shard);
+            return;
+        }
+        int maxInFlight = asyncTransport ? runConfig.getInt("maxInFlight", 1000) : threadCount;
+        HostLimiter hostLimiter = new HostLimiter(runConfig.getInt("maxRequestsPerHost", maxInFlight));
+        // Rows that have been read but not yet written to the report; bounds the memory used by a run
+        int maxPendingRows = Math.max(threadCount, maxInFlight) * 2;
+        Semaphore pendingRows = new Semaphore(maxPendingRows);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, newWorkerThreadFactory());
+
+        String timestamp = DateFormatter.formatPresentDateTime();
+        String reportName = fileName + "_report_" + timestamp + shard.getReportSuffix();
+        Path reportDirectory = ExcelDataDriven.createResultsDirectory();
+        responseCapture = ResponseCapture.fromConfig(runConfig, reportDirectory, reportName + "_" + sheetName);
+        ReportWriter reportWriter = ReportFormats.create(runConfig.getString("reportFormats", "xlsx"), reportDirectory, reportName,
+                sheetName + "_report_" + timestamp);
+        // Rows are masked by submitResult before they are journaled. A row keeps its pending slot until the sink has
+        // written it, so the rows held back behind a slow row are bounded as well
+        ResultSink resultSink = new ResultSink(reportWriter, maxPendingRows, null, pendingRows::release);
+        resultSink.addSummary("Latency", latencies::summaryRows);
 
-        // Loop and execute each request from data-driven sheet
-        for (LinkedHashMap<String, String> requestData : testData) {
-            String basePath = "";
-            Map<String, String> pathParams = null;
-            Map<String, String> queryParams = null;
-            Map<String, String> headers = null;
-            String method = "";
-            String requestBody = "";
-            String expectedStatusCode = "";
-
-            for (String key : keys) {
-                switch (key.toLowerCase()) {
-                    case "baseurl":
-                        baseUrl = environmentProperties.getProperty("baseUrl", baseUrl);
-                        break;
-                    case "basepath":
-                        basePath = requestData.get(key);
-                        break;
-                    case "pathparameters":
-                        pathParams = helperUtils.loadParameters(requestData.get(key));
-                        break;
-                    case "queryparameters":
-                        queryParams = helperUtils.loadParameters(requestData.get(key));
-                        break;
-                    case "headers":
-                        headers = JsonUtils.parseJsonObject(requestData.get(key));
-                        break;
-                    case "method":
-                        method = requestData.get(key);
-                        break;
-                    case "requestbody":
-                        requestBody = requestData.get(key);
-                        requestBody = JsonUtils.convertToJsonString(JsonUtils.randomRequestJsonObject(requestBody));
-                        break;
-                    case "statuscode":
-                        expectedStatusCode = requestData.get(key);
-                        break;
+        RequestChains chains = planChains(fileName, sheetName, baseUrl, usePlanCache);
+        CheckpointJournal journal = openCheckpointJournal(fileName, sheetName, shard);
+        checkpointJournal = journal;
+        long rowIndex = 0;
+        try (ResultSink sink = resultSink; SheetRowReader testData = ExcelDataDriven.openSheetData(fileName, sheetName, usePlanCache)) {
+            // Resolve the request columns once from the header row
+            RequestPlanner planner = new RequestPlanner(testData.getColumnNames(), baseUrl);
+
+            // Plan and execute each request from data-driven sheet as soon as it has been parsed
+            while (testData.hasNext()) {
+                LinkedHashMap<String, String> requestData = testData.next();
+                requestData.put(ROW_ID_COLUMN, String.valueOf(testData.getRowNumber()));
+                long currentRowIndex = rowIndex++;
+                if (!shard.includes(currentRowIndex)) {
+                    sink.skip(currentRowIndex);
+                    continue;
+                }
+                pendingRows.acquire();
+                CheckpointJournal.JournaledRow journaledRow = journal == null ? null : journal.takeJournaledRow(currentRowIndex);
+                if (journaledRow != null) {
+                    // Completed by the run being resumed: report its result again instead of sending the request
+                    if (chains.isChained(currentRowIndex)) {
+                        chains.enqueue(currentRowIndex, executor, variables -> {
+                            variables.putAll(journaledRow.getChainVariables());
+                            submitToSink(sink, currentRowIndex, journaledRow.getRow(), pendingRows);
+                            return CompletableFuture.completedFuture(null);
+                        });
+                    } else {
+                        submitToSink(sink, currentRowIndex, journaledRow.getRow(), pendingRows);
+                    }
+                    continue;
+                }
+                RequestPlan plan;
+                try {
+                    plan = planner.plan(currentRowIndex, requestData);
+                } catch (IllegalArgumentException e) {
+                    LinkedHashMap<String, String> result = updateRequestMapWithError(e.getMessage(), addBaseUrlToRequest(baseUrl, requestData));
+                    if (chains.isChained(currentRowIndex)) {
+                        // Keep the place of the row in its chain, so the chain still completes in order
+                        chains.enqueue(currentRowIndex, executor, variables -> {
+                            submitResult(sink, currentRowIndex, result, variables, pendingRows);
+                            return CompletableFuture.completedFuture(null);
+                        });
+                    } else {
+                        submitResult(sink, currentRowIndex, result, null, pendingRows);
+                    }
+                    continue;
+                }
+                if (chains.isChained(currentRowIndex)) {
+                    chains.enqueue(currentRowIndex, executor, variables ->
+                            submitWhenDone(sink, plan, executeWithVariables(plan, variables, asyncTransport, hostLimiter), variables, pendingRows));
+                } else if (plan.usesVariables()) {
+                    // No earlier row extracts its variables, so the row fails without being sent
+                    submitWhenDone(sink, plan, executeWithVariables(plan, Collections.emptyMap(), asyncTransport, hostLimiter), null, pendingRows);
+                } else if (asyncTransport) {
+                    submitWhenDone(sink, plan, hostLimiter.executeAsync(plan.getBaseUrl(), () -> executeAPIRequestAsync(plan)), null, pendingRows);
+                } else {
+                    executor.execute(() -> {
+                        LinkedHashMap<String, String> result;
+                        try {
+                            result = hostLimiter.execute(plan.getBaseUrl(), () -> executeAPIRequest(plan));
+                        } catch (Exception e) {
+                            result = updateRequestMapWithError("Error executing API request: " + e.getMessage(),
+                                    addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData()));
+                        }
+                        submitResult(sink, plan.getRowIndex(), result, null, pendingRows);
+                    });
                 }
             }
 
-            LinkedHashMap<String, String> updatedExcelData  = executeAPIRequest(method, baseUrl, basePath, requestBody, pathParams, queryParams, headers, expectedStatusCode, requestData);
-            updatedExcelDataList.add(updatedExcelData);
+            // Wait until every row has been handed to the report
+            pendingRows.acquire(maxPendingRows);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while executing API requests", e);
+        } finally {
+            executor.shutdownNow();
+            checkpointJournal = null;
+            if (journal != null) {
+                journal.close();
+            }
         }
-        Masking masking = new Masking();
-        String[] headers = new String[]{"Headers", "RequestBody", "Base_URL"};
-        String[] keysToMask = new String[] {"Content-Type", "email"};
-        updatedExcelDataList = masking.maskValuesOfMap(updatedExcelDataList, headers, keysToMask);
+        // Every row has been reported, so there is nothing left to resume
+        if (journal != null) {
+            journal.delete();
+        }
+    }
 
-        ExcelDataDriven.writeDataToExcel(updatedExcelDataList, fileName + "_report_" + DateFormatter.formatPresentDateTime(), sheetName + "_report_" + DateFormatter.formatPresentDateTime());
+    /**
+     * Opens the checkpoint journal of the run, unless "checkpoint" is false. Every completed row is journaled, and
+     * with "resume" set to true the rows journaled by an interrupted run of the same workbook and sheet are not sent
+     * again. "checkpointSyncMs" (default 200) is the interval at which the journal is fsynced.
+     *
+     * @param fileName  The name of the Excel file containing the data-driven requests.
+     * @param sheetName The name of the sheet within the Excel file.
+     * @param shard     The shard of the run, which has a journal of its own.
+     * @return The journal, or null if checkpoints are disabled.
+     * @throws IOException If the journal cannot be opened.
+     */
+    private CheckpointJournal openCheckpointJournal(String fileName, String sheetName, ShardSelector shard) throws IOException {
+        if (!runConfig.getBoolean("checkpoint", true)) {
+            return null;
+        }
+        Path journalFile = CheckpointJournal.journalFileFor(ExcelDataDriven.workbookFile(fileName), sheetName, shard.getReportSuffix());
+        CheckpointJournal journal = CheckpointJournal.open(journalFile, runConfig.getBoolean("resume", false),
+                runConfig.getLong("checkpointSyncMs", 200));
+        if (journal.getJournaledRowCount() > 0) {
+            System.out.println("Resuming run: " + journal.getJournaledRowCount() + " rows were already completed");
+        }
+        return journal;
     }
 
     /**
-     * Executes an API request based on the specified HTTP method, URL components,
-     * request payload, path parameters, query parameters, headers, and expected status code.
+     * Reads the sheet once more to group the rows that pass values to each other through "Extract:" columns and
+     * "${var}" references into {@link RequestChains}. Sheets without Extract columns have no chains.
      *
-     * @param method             The HTTP method (GET, POST, PUT, DELETE, PATCH) for the API request.
-     * @param baseUrl            The base URL of the API.
-     * @param basePath           The base path of the API endpoint.
-     * @param requestPayload     The payload/body of the request, represented as an Object.
-     * @param pathParams         The path parameters as a Map<String, String>. Can be null if not applicable.
-     * @param queryParams        The query parameters as a Map<String, String>. Can be null if not applicable.
-     * @param headers            The headers as a Map<String, String>. Can be null if not applicable.
-     * @param expectedStatusCode The expected HTTP status code as a String.
-     * @param requestMap         The map containing the request data to be updated with response details.
-     * @return The updated request map with response details.
+     * @param fileName     The name of the Excel file containing the data-driven requests.
+     * @param sheetName    The name of the sheet within the Excel file.
+     * @param baseUrl      The base URL of the environment.
+     * @param usePlanCache Whether to read the sheet from its compiled test plan.
+     * @return The chains of the sheet.
+     * @throws IOException If the sheet cannot be read.
      */
-    private LinkedHashMap<String, String> executeAPIRequest(String method, String baseUrl, String basePath,
-                                                            Object requestPayload, Map<String, String> pathParams,
-                                                            Map<String, String> queryParams, Map<String, String> headers,
-                                                            String expectedStatusCode, LinkedHashMap<String, String> requestMap) {
+    private RequestChains planChains(String fileName, String sheetName, String baseUrl, boolean usePlanCache) throws IOException {
+        try (SheetRowReader sheetRows = ExcelDataDriven.openSheetData(fileName, sheetName, usePlanCache)) {
+            RequestPlanner planner = new RequestPlanner(sheetRows.getColumnNames(), baseUrl);
+            if (!planner.hasExtractColumns()) {
+                return RequestChains.NONE;
+            }
+            RequestChains chains = RequestChains.build(planner, sheetRows);
+            System.out.println("Request chains: " + chains.getChainCount());
+            return chains;
+        }
+    }
 
+    /**
+     * Executes the request of a row that references variables, once the earlier rows of its chain have extracted them.
+     * The row fails without being sent when a variable has no value.
+     *
+     * @param plan           The plan of the request.
+     * @param variables      The variables of the chain of the row.
+     * @param asyncTransport Whether to send the request through {@link AsyncRestUtils}.
+     * @param hostLimiter    The limiter capping the requests per host.
+     * @return A future completed with the updated request data.
+     */
+    private CompletableFuture<LinkedHashMap<String, String>> executeWithVariables(RequestPlan plan, Map<String, String> variables,
+                                                                                   boolean asyncTransport, HostLimiter hostLimiter) {
+        LinkedHashMap<String, String> result;
         try {
-            switch (method.toUpperCase()) {
-                case "GET":
-                    if (pathParams != null && !pathParams.isEmpty() && queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performGetWithPathAndQueryParams(baseUrl, basePath, pathParams, queryParams, headers);
-                    } else if (pathParams != null && !pathParams.isEmpty()) {
-                        response = RestUtils.performGetWithPathParams(baseUrl, basePath, pathParams, headers);
-                    } else if (queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performGetWithQueryParams(baseUrl, basePath, queryParams, headers);
-                    } else {
-                        response = RestUtils.performGet(baseUrl, basePath, headers);
-                    }
-                    break;
-                case "POST":
-                    if (pathParams != null && !pathParams.isEmpty() && queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPostWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParams, queryParams, headers);
-                    } else if (pathParams != null && !pathParams.isEmpty()) {
-                        response = RestUtils.performPostWithPathParams(baseUrl, basePath, requestPayload, pathParams, headers);
-                    } else if (queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPostWithQueryParams(baseUrl, basePath, requestPayload, queryParams, headers);
-                    } else {
-                        response = RestUtils.performPost(baseUrl, basePath, requestPayload, headers);
-                    }
-                    break;
-                case "PUT":
-                    if (pathParams != null && !pathParams.isEmpty() && queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPutWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParams, queryParams, headers);
-                    } else if (pathParams != null && !pathParams.isEmpty()) {
-                        response = RestUtils.performPutWithPathParams(baseUrl, basePath, requestPayload, pathParams, headers);
-                    } else if (queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPutWithQueryParams(baseUrl, basePath, requestPayload, queryParams, headers);
-                    } else {
-                        response = RestUtils.performPut(baseUrl, basePath, requestPayload, headers);
-                    }
-                    break;
-                case "DELETE":
-                    if (pathParams != null && !pathParams.isEmpty() && queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performDeleteWithPathAndQueryParams(baseUrl, basePath, pathParams, queryParams, headers);
-                    } else if (pathParams != null && !pathParams.isEmpty()) {
-                        response = RestUtils.performDeleteWithPathParams(baseUrl, basePath, pathParams, headers);
-                    } else if (queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performDeleteWithQueryParams(baseUrl, basePath, queryParams, headers);
-                    } else {
-                        response = RestUtils.performDelete(baseUrl, basePath, headers);
+            RequestPlan resolvedPlan = plan.withVariables(variables);
+            if (asyncTransport) {
+                return hostLimiter.executeAsync(resolvedPlan.getBaseUrl(), () -> executeAPIRequestAsync(resolvedPlan));
+            }
+            result = hostLimiter.execute(resolvedPlan.getBaseUrl(), () -> executeAPIRequest(resolvedPlan));
+        } catch (IllegalArgumentException e) {
+            result = updateRequestMapWithError(e.getMessage(), addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData()));
+        } catch (Exception e) {
+            result = updateRequestMapWithError("Error executing API request: " + e.getMessage(),
+                    addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData()));
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Replays the rows of the sheet as a load test with {@link LoadGenerator} and writes a summary report with the
+     * achieved throughput and error rate, plus the latency percentiles per endpoint, instead of one report row per request.
+     * "loadProfile" selects "rate" (default), which starts requests at the arrival rates of "loadStages"
+     * (e.g. "10:30s,50:60s", ramping linearly between stages) with at most "maxInFlight" requests in flight,
+     * or "users", which runs "virtualUsers" concurrent loops over the sheet for "loadDuration".
+     *
+     * @param fileName       The name of the Excel file containing the data-driven requests.
+     * @param sheetName      The name of the sheet within the Excel file.
+     * @param baseUrl        The base URL of the environment.
+     * @param usePlanCache   Whether to read the sheet from its compiled test plan.
+     * @param asyncTransport Whether to send the requests through {@link AsyncRestUtils}.
+     * @param shard          The shard of the run; only its rows are replayed.
+     * @throws IOException If the sheet cannot be read or the report cannot be written.
+     */
+    private void executeLoadTest(String fileName, String sheetName, String baseUrl, boolean usePlanCache, boolean asyncTransport,
+                                 ShardSelector shard) throws IOException {
+        List<RequestPlan> plans = new ArrayList<>();
+        try (SheetRowReader testData = ExcelDataDriven.openSheetData(fileName, sheetName, usePlanCache)) {
+            RequestPlanner planner = new RequestPlanner(testData.getColumnNames(), baseUrl);
+            long rowIndex = 0;
+            while (testData.hasNext()) {
+                LinkedHashMap<String, String> requestData = testData.next();
+                if (!shard.includes(rowIndex)) {
+                    rowIndex++;
+                    continue;
+                }
+                requestData.put(ROW_ID_COLUMN, String.valueOf(testData.getRowNumber()));
+                try {
+                    RequestPlan plan = planner.plan(rowIndex++, requestData);
+                    if (plan.usesVariables()) {
+                        System.err.println("Skipping row " + plan.getRowNumber() + " in load test: rows using extracted variables need the functional mode");
+                        continue;
                     }
-                    break;
-                case "PATCH":
-                    if (pathParams != null && !pathParams.isEmpty() && queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPatchWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParams, queryParams, headers);
-                    } else if (pathParams != null && !pathParams.isEmpty()) {
-                        response = RestUtils.performPatchWithPathParams(baseUrl, basePath, requestPayload, pathParams, headers);
-                    } else if (queryParams != null && !queryParams.isEmpty()) {
-                        response = RestUtils.performPatchWithQueryParams(baseUrl, basePath, requestPayload, queryParams, headers);
-                    } else {
-                        response = RestUtils.performPatch(baseUrl, basePath, requestPayload, headers);
+                    plans.add(plan);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping invalid row in load test: " + e.getMessage());
+                }
+            }
+        }
+
+        // Response bodies are not reported in a load test, so they are never written to disk
+        responseCapture = ResponseCapture.fromConfig(runConfig, null, null);
+        Function<RequestPlan, LinkedHashMap<String, String>> requestExecutor = asyncTransport
+                ? plan -> executeAPIRequestAsync(plan).join()
+                : this::executeAPIRequest;
+        LoadGenerator loadGenerator = new LoadGenerator(plans, requestExecutor);
+        List<LinkedHashMap<String, String>> summary;
+        try {
+            if ("users".equalsIgnoreCase(runConfig.getString("loadProfile", "rate"))) {
+                summary = loadGenerator.runVirtualUsers(Math.max(1, runConfig.getInt("virtualUsers", 10)),
+                        LoadGenerator.parseDuration(runConfig.getString("loadDuration", "60s")));
+            } else {
+                summary = loadGenerator.runArrivalRate(LoadGenerator.parseStages(runConfig.getString("loadStages", "10:60s")),
+                        Math.max(1, runConfig.getInt("maxInFlight", 1000)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running the load test", e);
+        }
+
+        String timestamp = DateFormatter.formatPresentDateTime();
+        try (ReportWriter reportWriter = ReportFormats.create(runConfig.getString("reportFormats", "xlsx"),
+                ExcelDataDriven.createResultsDirectory(), fileName + "_load_" + timestamp + shard.getReportSuffix(), sheetName + "_load_" + timestamp)) {
+            for (LinkedHashMap<String, String> row : summary) {
+                System.out.println("Load test " + row);
+                reportWriter.writeRow(row);
+            }
+            reportWriter.writeSummary("Latency", latencies.summaryRows());
+        }
+    }
+
+    /**
+     * Masks a completed row, journals it and hands it to the result sink.
+     * The RowId column, the number of the row in the sheet, is moved to the end of the row; it identifies the row
+     * across shards and runs.
+     *
+     * @param sink           The sink writing the report.
+     * @param rowIndex       The position of the row in the sheet.
+     * @param result         The result row.
+     * @param chainVariables The variables of the row's chain, journaled so a resumed run can continue the chain;
+     *                       null if the row is not chained.
+     * @param pendingRows    The semaphore bounding the rows in progress.
+     */
+    private void submitResult(ResultSink sink, long rowIndex, LinkedHashMap<String, String> result, Map<String, String> chainVariables,
+                              Semaphore pendingRows) {
+        String rowId = result.remove(ROW_ID_COLUMN);
+        result.put(ROW_ID_COLUMN, rowId != null ? rowId : String.valueOf(rowIndex + 2));
+        result = maskRow(result);
+        CheckpointJournal journal = checkpointJournal;
+        // Rows that were not sent because of an open circuit are sent again when the run is resumed
+        if (journal != null && !CircuitBreaker.CIRCUIT_OPEN.equals(result.get("PassOrFail"))) {
+            try {
+                journal.append(rowIndex, result, chainVariables);
+            } catch (IOException e) {
+                System.err.println("Error occurred while writing checkpoint journal: " + e.getMessage());
+            }
+        }
+        submitToSink(sink, rowIndex, result, pendingRows);
+    }
+
+    /**
+     * Submits the result of an asynchronous request once it is done. A request that completed exceptionally is
+     * reported as an error row, so its pending slot is always freed and the rows after it are still written.
+     *
+     * @param sink        The sink writing the report.
+     * @param plan        The plan of the request.
+     * @param result         The future result of the request.
+     * @param chainVariables The variables of the row's chain, or null if it is not chained.
+     * @param pendingRows    The semaphore bounding the rows in progress.
+     * @return A future completed once the row has been submitted.
+     */
+    private CompletableFuture<Void> submitWhenDone(ResultSink sink, RequestPlan plan, CompletableFuture<LinkedHashMap<String, String>> result,
+                                                   Map<String, String> chainVariables, Semaphore pendingRows) {
+        return result.handle((row, error) -> {
+            if (error == null) {
+                return row;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return updateRequestMapWithError("Error executing API request: " + cause.getMessage(),
+                    addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData()));
+        }).thenAccept(row -> submitResult(sink, plan.getRowIndex(), row, chainVariables, pendingRows));
+    }
+
+    /**
+     * Hands a row to the result sink, which frees its pending slot once the row has been written.
+     *
+     * @param sink        The sink writing the report.
+     * @param rowIndex    The position of the row in the sheet.
+     * @param result      The result row.
+     * @param pendingRows The semaphore bounding the rows in progress.
+     */
+    private void submitToSink(ResultSink sink, long rowIndex, LinkedHashMap<String, String> result, Semaphore pendingRows) {
+        try {
+            sink.submit(rowIndex, result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // The row never reached the sink
+            pendingRows.release();
+        }
+    }
+
+    /**
+     * Masks sensitive values of a result row before it is written to the report.
+     *
+     * @param row The result row.
+     * @return The masked row.
+     */
+    private LinkedHashMap<String, String> maskRow(LinkedHashMap<String, String> row) {
+        Masking masking = new Masking();
+        String[] headers = new String[]{"Headers", "RequestBody", "Base_URL"};
+        String[] keysToMask = new String[] {"Content-Type", "email"};
+        List<LinkedHashMap<String, String>> maskedRows = masking.maskValuesOfMap(new ArrayList<>(Collections.singletonList(row)), headers, keysToMask);
+        return maskedRows.get(0);
+    }
+
+    /**
+     * Executes the API request of a request plan, retrying transient failures as the {@link RetryPolicy} allows.
+     *
+     * @param plan The plan of the request.
+     * @return The request data of the row updated with the response details.
+     */
+    private LinkedHashMap<String, String> executeAPIRequest(RequestPlan plan) {
+        LinkedHashMap<String, String> requestMap = addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData());
+        if (!circuitBreaker.allowRequest(plan.getBaseUrl())) {
+            return updateRequestMapWithOpenCircuit(plan, requestMap);
+        }
+        ExchangeLog exchangeLog = RequestLogger.start();
+        try {
+            Object requestPayload = plan.getMethod().hasBody() ? plan.renderRequestBody() : null;
+            Response response;
+            long startNanos;
+            for (int attempt = 1; ; attempt++) {
+                startNanos = System.nanoTime();
+                response = null;
+                Exception error = null;
+                try {
+                    response = RestUtils.perform(plan.getMethod(), plan.getBaseUrl(), plan.getBasePath(), requestPayload,
+                            plan.getPathParams(), plan.getQueryParams(), plan.getHeaders(), exchangeLog);
+                } catch (Exception e) {
+                    // RestAssured also throws checked exceptions such as ConnectException
+                    error = e;
+                }
+                if (!recordAttempt(plan, attempt, response, error, exchangeLog)) {
+                    if (error != null) {
+                        throw error;
                     }
                     break;
-                default:
-                    System.out.println("Unsupported HTTP method: " + method);
+                }
+                Thread.sleep(retryPolicy.backoffMillis(attempt));
             }
-
-            requestMap = addBaseUrlToRequest(baseUrl, requestMap);
+            long latencyMicros = recordLatency(plan, startNanos);
             // Update request map with response data
-            requestMap = updateRequestMap(response, expectedStatusCode, requestMap);
-
+            requestMap = updateRequestMap(plan, response, latencyMicros, requestMap);
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             System.err.println("Error executing API request: " + e.getMessage());
-            e.printStackTrace();
+            if (exchangeLog != null) {
+                exchangeLog.append("Error executing API request: " + e);
+            }
+            requestMap = updateRequestMapWithError("Error executing API request: " + e.getMessage(), requestMap);
         }
+        RequestLogger.complete(exchangeLog, "FAIL".equals(requestMap.get("PassOrFail")));
         return requestMap;
     }
 
+    /**
+     * Executes the API request of a request plan through the non-blocking {@link AsyncRestUtils} transport,
+     * retrying transient failures as the {@link RetryPolicy} allows.
+     *
+     * @param plan The plan of the request.
+     * @return A future completed with the updated request data once the response has arrived.
+     */
+    private CompletableFuture<LinkedHashMap<String, String>> executeAPIRequestAsync(RequestPlan plan) {
+        LinkedHashMap<String, String> requestMap = addBaseUrlToRequest(plan.getBaseUrl(), plan.copyRequestData());
+        if (!circuitBreaker.allowRequest(plan.getBaseUrl())) {
+            return CompletableFuture.completedFuture(updateRequestMapWithOpenCircuit(plan, requestMap));
+        }
+        ExchangeLog exchangeLog = RequestLogger.start();
+        CompletableFuture<Response> response;
+        // Start of the last attempt
+        long[] startNanos = {System.nanoTime()};
+        try {
+            Object requestPayload = plan.getMethod().hasBody() ? plan.renderRequestBody() : null;
+            if (exchangeLog != null) {
+                exchangeLog.append("Request method:\t" + plan.getMethod() + "\nRequest URI:\t" + plan.getBaseUrl() + plan.getBasePath()
+                        + "\nPath params:\t" + plan.getPathParams() + "\nQuery params:\t" + plan.getQueryParams()
+                        + "\nHeaders:\t" + plan.getHeaders() + "\nBody:\n" + (requestPayload == null ? "<none>" : requestPayload));
+            }
+            response = performAsyncWithRetry(plan, requestPayload, 1, startNanos, exchangeLog);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, error) -> {
+            LinkedHashMap<String, String> updatedRequestMap;
+            if (error != null) {
+                System.err.println("Error executing API request: " + error.getMessage());
+                if (exchangeLog != null) {
+                    exchangeLog.append("Error executing API request: " + error);
+                }
+                updatedRequestMap = updateRequestMapWithError("Error executing API request: " + error.getMessage(), requestMap);
+            } else {
+                long latencyMicros = recordLatency(plan, startNanos[0]);
+                if (exchangeLog != null) {
+                    exchangeLog.append(result.getStatusLine() + "\n" + result.getHeaders() + "\n\n" + result.asString());
+                }
+                updatedRequestMap = updateRequestMap(plan, result, latencyMicros, requestMap);
+            }
+            RequestLogger.complete(exchangeLog, "FAIL".equals(updatedRequestMap.get("PassOrFail")));
+            return updatedRequestMap;
+        });
+    }
+
+    /**
+     * Sends an attempt of an asynchronous request and, if it fails transiently and the {@link RetryPolicy} allows,
+     * schedules the next attempt after its backoff without blocking a thread.
+     *
+     * @param plan           The plan of the request.
+     * @param requestPayload The rendered request body, or null.
+     * @param attempt        The number of the attempt, starting at 1.
+     * @param startNanos     Holds the {@link System#nanoTime()} at which the last attempt was sent.
+     * @param exchangeLog    The log buffer of the request, or null.
+     * @return A future completed with the response of the last attempt.
+     */
+    private CompletableFuture<Response> performAsyncWithRetry(RequestPlan plan, Object requestPayload, int attempt, long[] startNanos,
+                                                              ExchangeLog exchangeLog) {
+        startNanos[0] = System.nanoTime();
+        CompletableFuture<Response> response;
+        try {
+            response = AsyncRestUtils.performAsync(plan.getMethod().name(), plan.getBaseUrl(), plan.getBasePath(), requestPayload,
+                    plan.getPathParams(), plan.getQueryParams(), plan.getHeaders());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, error) -> {
+            if (!recordAttempt(plan, attempt, result, error, exchangeLog)) {
+                return error == null ? CompletableFuture.completedFuture(result) : CompletableFuture.<Response>failedFuture(error);
+            }
+            long backoffMillis = retryPolicy.backoffMillis(attempt);
+            return CompletableFuture.supplyAsync(() -> attempt + 1, CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS))
+                    .thenCompose(nextAttempt -> performAsyncWithRetry(plan, requestPayload, nextAttempt, startNanos, exchangeLog));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Records the outcome of an attempt with the circuit breaker and decides whether to make another attempt.
+     *
+     * @param plan        The plan of the request.
+     * @param attempt     The number of the attempt, starting at 1.
+     * @param response    The response of the attempt, or null if it failed.
+     * @param error       The exception of the attempt, or null if it has a response.
+     * @param exchangeLog The log buffer of the request, or null.
+     * @return Whether to send the request again.
+     */
+    private boolean recordAttempt(RequestPlan plan, int attempt, Response response, Throwable error, ExchangeLog exchangeLog) {
+        boolean transientFailure = error != null
+                ? retryPolicy.isRetryableException(error)
+                : retryPolicy.isRetryableStatus(response.getStatusCode());
+        circuitBreaker.record(plan.getBaseUrl(), !transientFailure);
+        if (!transientFailure || !retryPolicy.shouldRetry(plan.getMethod(), attempt) || !circuitBreaker.allowRequest(plan.getBaseUrl())) {
+            return false;
+        }
+        String failure = error != null ? error.toString() : response.getStatusLine();
+        System.err.println("Retrying " + plan.getMethod() + " " + plan.getBasePath() + " of row " + plan.getRowNumber()
+                + " after attempt " + attempt + " failed: " + failure);
+        if (exchangeLog != null) {
+            exchangeLog.append("Attempt " + attempt + " failed: " + failure);
+        }
+        return true;
+    }
+
+    /**
+     * Records the latency of a request that has just received its response.
+     *
+     * @param plan       The plan of the request.
+     * @param startNanos The {@link System#nanoTime()} at which the request was sent.
+     * @return The latency in microseconds.
+     */
+    private long recordLatency(RequestPlan plan, long startNanos) {
+        long latencyMicros = (System.nanoTime() - startNanos) / 1000;
+        // Keyed by the unresolved path, so the ids filled in by chains do not each get a histogram
+        latencies.record(plan.getMethod(), plan.getEndpointPath(), latencyMicros);
+        return latencyMicros;
+    }
+
+    /**
+     * Creates the thread factory for the row workers so their threads are named and do not keep the JVM alive.
+     *
+     * @return The worker thread factory.
+     */
+    private static ThreadFactory newWorkerThreadFactory() {
+        AtomicInteger workerCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "data-driven-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     private LinkedHashMap<String, String> addBaseUrlToRequest(String baseUrl, LinkedHashMap<String, String> requestMap) {
         // Create a new LinkedHashMap with "Base_URL" as the first entry
         LinkedHashMap<String, String> updatedRequestMap = new LinkedHashMap<>();
@@ -198,24 +638,117 @@ public class DataDrivenUtil {
 
     /**
      * Updates the request map with API response details.
+     * A row passes when the status code is the expected one and, if the row names a ResponseSchema, the body matches
+     * the schema; the SchemaValidation column holds VALID or the schema violations.
+     * Rows with "Assert:" columns also need every assertion to hold; the AssertionResults column holds PASS or the
+     * failed assertions. Values of "Extract:" columns are stored in the variables of the row's chain and listed in
+     * the ExtractedVariables column.
+     * The response body is only kept for failed rows, as captured by the {@link ResponseCapture} policy of the run.
      *
-     * @param response           The API response.
-     * @param expectedStatusCode The expected status code.
-     * @param requestMap         The map containing the request data to be updated.
+     * @param plan          The plan of the request.
+     * @param response      The API response.
+     * @param latencyMicros The time the request took, in microseconds.
+     * @param requestMap    The map containing the request data to be updated.
      * @return The updated request map with response details.
      */
-    private LinkedHashMap<String, String> updateRequestMap(Response response, String expectedStatusCode, LinkedHashMap<String, String> requestMap) {
-        String actualStatusCode = String.valueOf(response.getStatusCode());
-        requestMap.put("PassOrFail", actualStatusCode.equals(expectedStatusCode) ? "PASS" : "FAIL");
-
-        String responseBody = response.getBody().asPrettyString();
-        if (!actualStatusCode.equals(expectedStatusCode)) {
-            requestMap.put("ResponseBody", responseBody);
-        } else {
-            requestMap.put("ResponseBody", "");
+    private LinkedHashMap<String, String> updateRequestMap(RequestPlan plan, Response response, long latencyMicros, LinkedHashMap<String, String> requestMap) {
+        boolean passed = String.valueOf(response.getStatusCode()).equals(plan.getExpectedStatusCode());
+        String schemaValidation = "";
+        if (!plan.getResponseSchema().isEmpty()) {
+            String violations = ResponseSchemas.validate(plan.getResponseSchema(), response.asByteArray());
+            passed &= violations == null;
+            schemaValidation = violations == null ? "VALID" : violations;
+        }
+        // The values of the assertions and the extractions are read from the body in one pass
+        List<JsonPathExpression> paths = new ArrayList<>(plan.getExtractions().values());
+        for (ResponseAssertion assertion : plan.getAssertions()) {
+            paths.add(assertion.getPath());
+        }
+        Map<JsonPathExpression, JsonNode> values = Collections.emptyMap();
+        String bodyError = null;
+        if (!paths.isEmpty()) {
+            try {
+                values = JsonPathExpression.extract(response.asByteArray(), paths);
+            } catch (IOException e) {
+                bodyError = "Response body is not JSON: " + e.getMessage();
+            }
+        }
+        String assertionResults = "";
+        if (!plan.getAssertions().isEmpty()) {
+            List<String> failures = bodyError != null
+                    ? Collections.singletonList(bodyError)
+                    : ResponseAssertion.check(plan.getAssertions(), values);
+            passed &= failures.isEmpty();
+            assertionResults = failures.isEmpty() ? "PASS" : String.join("\n", failures);
         }
+        requestMap.put("PassOrFail", passed ? "PASS" : "FAIL");
+        requestMap.put("SchemaValidation", schemaValidation);
+        requestMap.put("AssertionResults", assertionResults);
+        String extractedVariables = "";
+        if (!plan.getExtractions().isEmpty()) {
+            extractedVariables = bodyError != null ? bodyError : extractVariables(plan, values);
+        }
+        requestMap.put("ExtractedVariables", extractedVariables);
+        responseCapture.capture(plan.getRowNumber(), response, !passed, requestMap);
         requestMap.put("ResponseStatusCode", response.getStatusLine());
+        requestMap.put("ResponseTimeMs", String.format("%.1f", latencyMicros / 1000.0));
+
+        return requestMap;
+    }
 
+    /**
+     * Stores the "Extract:" values of a row in the variables of its chain.
+     *
+     * @param plan   The plan of the request.
+     * @param values The values extracted from the response body, keyed by path.
+     * @return The extracted variables as "name=value" lines, for the report.
+     */
+    private String extractVariables(RequestPlan plan, Map<JsonPathExpression, JsonNode> values) {
+        List<String> extracted = new ArrayList<>();
+        for (Map.Entry<String, JsonPathExpression> extraction : plan.getExtractions().entrySet()) {
+            JsonNode value = values.get(extraction.getValue());
+            if (value == null) {
+                extracted.add(extraction.getKey() + ": no value found at " + extraction.getValue());
+                continue;
+            }
+            String text = value.isValueNode() ? value.asText() : value.toString();
+            if (plan.getChainVariables() != null) {
+                plan.getChainVariables().put(extraction.getKey(), text);
+            }
+            extracted.add(extraction.getKey() + "=" + text);
+        }
+        return String.join("\n", extracted);
+    }
+
+    /**
+     * Updates the request map for a request that produced no response, so failed rows keep the report columns.
+     *
+     * @param message    The error message to report.
+     * @param requestMap The map containing the request data to be updated.
+     * @return The updated request map.
+     */
+    private LinkedHashMap<String, String> updateRequestMapWithError(String message, LinkedHashMap<String, String> requestMap) {
+        requestMap.put("PassOrFail", "FAIL");
+        requestMap.put("SchemaValidation", "");
+        requestMap.put("AssertionResults", "");
+        requestMap.put("ExtractedVariables", "");
+        requestMap.put("ResponseBody", message);
+        requestMap.put(ResponseCapture.BODY_FILE_COLUMN, "");
+        requestMap.put("ResponseStatusCode", "");
+        requestMap.put("ResponseTimeMs", "");
+        return requestMap;
+    }
+
+    /**
+     * Updates the request map for a request that was not sent because the circuit of its host is open.
+     *
+     * @param plan       The plan of the request.
+     * @param requestMap The map containing the request data to be updated.
+     * @return The updated request map, marked CIRCUIT_OPEN.
+     */
+    private LinkedHashMap<String, String> updateRequestMapWithOpenCircuit(RequestPlan plan, LinkedHashMap<String, String> requestMap) {
+        updateRequestMapWithError(circuitBreaker.describeOpenCircuit(plan.getBaseUrl()), requestMap);
+        requestMap.put("PassOrFail", CircuitBreaker.CIRCUIT_OPEN);
         return requestMap;
     }
 
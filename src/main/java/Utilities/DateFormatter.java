@@ -1,28 +1,24 @@
 package Utilities;
 
-import net.datafaker.Faker;
-
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Utility class for formatting dates.
  */
 public class DateFormatter {
 
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     /**
      * Generates a random future date and formats it as a string.
      *
      * @return A string representing a random future date in the format "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
      */
     public static String formatFutureDate() {
-        Faker faker = new Faker();
-        // Generate a random future date
-        Date randomDate = faker.date().future(365, TimeUnit.DAYS); // Adjust the range as needed
-        // Format the date as a string in the desired format
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        return formatter.format(randomDate);
+        return RandomDataService.futureDate();
     }
 
     /**
@@ -31,36 +27,24 @@ public class DateFormatter {
      * @return A string representing a random past date in the format "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
      */
     public static String formatPastDate() {
-        Faker faker = new Faker();
-        // Generate a random past date
-        Date randomDate = faker.date().past(365, TimeUnit.DAYS); // Adjust the range as needed
-        // Format the date as a string in the desired format
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        return formatter.format(randomDate);
+        return RandomDataService.pastDate();
     }
 
     /**
-     * Formats the current date as a string.
+     * Formats the current date and time as a string.
      *
-     * @return A string representing the current date in the format "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
+     * @return A string representing the current date and time in the format "yyyy-MM-dd_HH-mm-ss".
      */
-
     public static String formatPresentDateTime() {
-        // Get the current date
-        Date date = new Date();
-        // Format the date as a string in the desired format
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-        return formatter.format(date);
+        return DATE_TIME_FORMAT.format(LocalDateTime.now());
     }
 
+    /**
+     * Formats the current date as a string.
+     *
+     * @return A string representing the current date in the format "yyyy-MM-dd".
+     */
     public static String formatPresentDate() {
-        // Get the current date
-        Date date = new Date();
-        // Format the date as a string in the desired format
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        return formatter.format(date);
+        return DATE_FORMAT.format(LocalDate.now());
     }
-
-
-
 }
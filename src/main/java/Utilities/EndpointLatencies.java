@@ -0,0 +1,61 @@
+package Utilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the latencies of a run into one {@link LatencyHistogram} per endpoint, keyed by method and base path.
+ */
+public class EndpointLatencies {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final LatencyHistogram allRequests = new LatencyHistogram();
+
+    /**
+     * Records the latency of a request.
+     *
+     * @param method   The HTTP method of the request.
+     * @param basePath The base path of the request, before path parameters are substituted.
+     * @param micros   The latency in microseconds.
+     */
+    public void record(HttpMethod method, String basePath, long micros) {
+        histograms.computeIfAbsent(method + " " + basePath, endpoint -> new LatencyHistogram()).record(micros);
+        allRequests.record(micros);
+    }
+
+    /**
+     * Returns one summary row per endpoint, sorted by endpoint, followed by a row for all requests.
+     * Latencies are given in milliseconds.
+     *
+     * @return The summary rows.
+     */
+    public List<LinkedHashMap<String, String>> summaryRows() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> endpoint : new TreeMap<>(histograms).entrySet()) {
+            rows.add(summaryRow(endpoint.getKey(), endpoint.getValue()));
+        }
+        rows.add(summaryRow("All requests", allRequests));
+        return rows;
+    }
+
+    private static LinkedHashMap<String, String> summaryRow(String endpoint, LatencyHistogram histogram) {
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("Endpoint", endpoint);
+        row.put("Count", String.valueOf(histogram.getCount()));
+        row.put("MinMs", toMillis(histogram.getMin()));
+        row.put("P50Ms", toMillis(histogram.getValueAtPercentile(50)));
+        row.put("P90Ms", toMillis(histogram.getValueAtPercentile(90)));
+        row.put("P99Ms", toMillis(histogram.getValueAtPercentile(99)));
+        row.put("P99.9Ms", toMillis(histogram.getValueAtPercentile(99.9)));
+        row.put("MaxMs", toMillis(histogram.getMax()));
+        return row;
+    }
+
+    private static String toMillis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
@@ -1,15 +1,11 @@
 package Utilities;
 
-import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -20,6 +16,7 @@ public class ExcelDataDriven {
 
     /**
      * Loads data from the specified Excel file and sheet into a list of hash maps.
+     * For large sheets prefer {@link #openSheetData(String, String)}, which does not keep every row in memory.
      *
      * @param filename  The path to the Excel file.
      * @param sheetName The name of the sheet from which data will be loaded.
@@ -27,34 +24,51 @@ public class ExcelDataDriven {
      * @throws IOException If an I/O error occurs while reading the Excel file.
      */
     public static List<LinkedHashMap<String, String>> loadDSheetData(String filename, String sheetName) throws IOException, InvalidFormatException {
-        String filePath = "src/test/resources/TestData/" + filename + ".xlsx";
         List<LinkedHashMap<String, String>> excelData = new ArrayList<>();
+        try (StreamingSheetReader reader = openSheetData(filename, sheetName)) {
+            reader.forEachRemaining(excelData::add);
+        }
+        return excelData;
+    }
 
-        try (FileInputStream fis = new FileInputStream(filePath); Workbook workbook = WorkbookFactory.create(fis)) {
-            Sheet sheet = workbook.getSheet(sheetName);
-
-            if (sheet == null) {
-                sheet = workbook.createSheet(sheetName); // Create sheet if not exists
-            }
+    /**
+     * Opens the specified Excel file and sheet for streaming. Rows are parsed on demand, so the caller can
+     * start working on the first row before the rest of the sheet has been read.
+     * The returned reader must be closed once the caller is done with it.
+     *
+     * @param filename  The name of the Excel file (without extension) under src/test/resources/TestData.
+     * @param sheetName The name of the sheet from which data will be read.
+     * @return A reader returning each data row as a map from column name to cell value.
+     * @throws IOException If the file cannot be read or does not contain the sheet.
+     */
+    public static StreamingSheetReader openSheetData(String filename, String sheetName) throws IOException {
+        return StreamingSheetReader.open(workbookFile(filename), sheetName);
+    }
 
-            Row headerRow = sheet.getRow(0); // Assuming the first row contains headers
-            List<String> columnNames = new ArrayList<>();
-            for (Cell cell : headerRow) {
-                columnNames.add(cell.getStringCellValue());
-            }
+    /**
+     * Opens the specified Excel file and sheet for reading, optionally through the compiled test plan cache.
+     * With the cache enabled an unchanged workbook is read from its compiled plan instead of being parsed by POI.
+     * The returned reader must be closed once the caller is done with it.
+     *
+     * @param filename     The name of the Excel file (without extension) under src/test/resources/TestData.
+     * @param sheetName    The name of the sheet from which data will be read.
+     * @param usePlanCache Whether to read from and populate the {@link TestPlanCache}.
+     * @return A reader returning each data row as a map from column name to cell value.
+     * @throws IOException If the file cannot be read or does not contain the sheet.
+     */
+    public static SheetRowReader openSheetData(String filename, String sheetName, boolean usePlanCache) throws IOException {
+        File workbook = workbookFile(filename);
+        return usePlanCache ? TestPlanCache.openSheetRows(workbook, sheetName) : StreamingSheetReader.open(workbook, sheetName);
+    }
 
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row currentRow = sheet.getRow(rowIndex);
-                LinkedHashMap<String, String> data = new LinkedHashMap<>();
-                for (int col = 0; col < columnNames.size(); col++) {
-                    Cell cell = currentRow.getCell(col);
-                    String cellValue = new DataFormatter().formatCellValue(cell);
-                    data.put(columnNames.get(col), cellValue);
-                }
-                excelData.add(data);
-            }
-        }
-        return excelData;
+    /**
+     * Returns the workbook file of a data-driven sheet.
+     *
+     * @param filename The name of the Excel file (without extension) under src/test/resources/TestData.
+     * @return The workbook file.
+     */
+    public static File workbookFile(String filename) {
+        return new File("src/test/resources/TestData/" + filename + ".xlsx");
     }
 
     /**
@@ -105,6 +119,7 @@ public class ExcelDataDriven {
 
     /**
      * Writes data to the specified Excel file and sheet.
+     * Rows are streamed through an {@link ExcelReportWriter}, so only a bounded window of rows is kept in memory.
      *
      * @param data           The list of maps containing data to be written.
      * @param outputFilename The path to the output Excel file.
@@ -112,141 +127,25 @@ public class ExcelDataDriven {
      * @throws IOException If an I/O error occurs while writing to the Excel file.
      */
     public static void writeDataToExcel(List<LinkedHashMap<String, String>> data, String outputFilename, String sheetName) throws IOException, InvalidFormatException {
-
-        String uniqueDirPath = System.getProperty("user.dir") + "\\DataDrivenResults_" + DateFormatter.formatPresentDateTime();
-        // Create the directory if it does not exist
-        Files.createDirectories(Paths.get(uniqueDirPath));
-
         // Construct the file path with the unique directory
-        String filePath = uniqueDirPath + "\\" + outputFilename + ".xlsx";
-
-        File file = new File(filePath);
-        Workbook workbook;
-        Sheet sheet;
-
-        if (file.exists()) {
-            file.delete();
-            workbook = new XSSFWorkbook(); // Create a new workbook if file does not exist
-            sheet = workbook.createSheet(sheetName);
-        } else {
-            workbook = new XSSFWorkbook(); // Create a new workbook if file does not exist
-            sheet = workbook.createSheet(sheetName);
-        }
-
-        if (sheet == null) {
-            sheet = workbook.createSheet(sheetName); // Create sheet if it does not exist
-        }
-
-        // Write headers
-        if (!data.isEmpty()) {
-            Row headerRow = sheet.createRow(0);
-            LinkedHashMap<String, String> firstData = data.get(0);
-            int columnIdx = 0;
-            for (String key : firstData.keySet()) {
-                Cell cell = headerRow.createCell(columnIdx++);
-                cell.setCellValue(key);
-            }
-        }
-
-        // Write data
-        int rowIndex = 1;
-        for (LinkedHashMap<String, String> map : data) {
-            Row row = sheet.createRow(rowIndex++);
-            int cellIdx = 0;
-            for (String key : map.keySet()) {
-                row.createCell(cellIdx++).setCellValue(map.get(key));
-            }
-        }
+        Path filePath = createResultsDirectory().resolve(outputFilename + ".xlsx");
 
-        // Apply styles and auto-size columns (optional, implement as needed)
-        applyStylesAndAutoSizeColumns(sheet, workbook);
-
-        // Write the workbook to the output file
-        try (FileOutputStream fos = new FileOutputStream(filePath)) {
-            workbook.write(fos);
-        }
-    }
-
-    /**
-     * Applies styles and auto-sizes columns for the sheet.
-     *
-     * @param sheet    The sheet to apply styles to.
-     * @param workbook The workbook containing the sheet.
-     */
-    private static void applyStylesAndAutoSizeColumns(Sheet sheet, Workbook workbook) {
-        int rowLength = sheet.getLastRowNum();
-        for (int i = 0; i <= rowLength; i++) {
-            Row row = sheet.getRow(i);
-            for (int j = 0; j < row.getLastCellNum(); j++) {
-                Cell cell = row.getCell(j);
-                if (cell == null) {
-                    cell = row.createCell(j);
-                }
-                CellStyle style = createCellStyle(workbook);
-                if (i == 0) {
-                    applyColorToCell(style, "SKY_BLUE");
-                } else{
-                    applyConditionalFormatting(cell, style);
-                }
-                sheet.autoSizeColumn(j);
-                cell.setCellStyle(style);
+        try (ExcelReportWriter writer = new ExcelReportWriter(filePath, sheetName, ExcelReportWriter.DEFAULT_ROW_WINDOW)) {
+            for (LinkedHashMap<String, String> map : data) {
+                writer.writeRow(map);
             }
         }
     }
 
     /**
-     * Creates a cell style with default settings.
-     *
-     * @param workbook The workbook to create the cell style for.
-     * @return The created cell style.
-     */
-    private static CellStyle createCellStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setWrapText(true);
-        style.setVerticalAlignment(VerticalAlignment.TOP);
-        style.setAlignment(HorizontalAlignment.LEFT);
-        style.setBorderTop(BorderStyle.MEDIUM);
-        style.setBorderBottom(BorderStyle.MEDIUM);
-        style.setBorderLeft(BorderStyle.MEDIUM);
-        style.setBorderRight(BorderStyle.MEDIUM);
-        style.setFillForegroundColor(IndexedColors.WHITE1.getIndex());
-        return style;
-    }
-
-    /**
-     * Applies conditional formatting to the cell based on its value.
+     * Creates the timestamped DataDrivenResults directory for the reports of a run.
      *
-     * @param cell  The cell to apply formatting to.
-     * @param style The cell style to apply.
+     * @return The path of the created directory.
+     * @throws IOException If the directory cannot be created.
      */
-    private static void applyConditionalFormatting(Cell cell, CellStyle style) {
-        String passColorName = "GREEN";
-        String failColorName = "RED";
-
-        if (cell.getStringCellValue().equalsIgnoreCase("pass")) {
-            applyColorToCell(style, passColorName);
-        } else if (cell.getStringCellValue().equalsIgnoreCase("fail")) {
-            applyColorToCell(style, failColorName);
-        }
-    }
-
-    /**
-     * Applies the specified color to the cell style.
-     *
-     * @param style       The cell style to apply the color to.
-     * @param colorName   The name of the color to apply.
-     */
-    private static void applyColorToCell(CellStyle style, String colorName) {
-        try {
-            IndexedColors indexedColor = IndexedColors.valueOf(colorName);
-            short colorIndex = indexedColor.getIndex();
-            style.setFillForegroundColor(colorIndex);
-            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            Font font = new XSSFFont();
-            font.setBold(true);
-            style.setFont(font);
-        } catch (IllegalArgumentException e) {
-            System.out.println("Color name not found: " + colorName);
-        }
+    public static Path createResultsDirectory() throws IOException {
+        Path uniqueDirPath = Paths.get(System.getProperty("user.dir"), "DataDrivenResults_" + DateFormatter.formatPresentDateTime());
+        // Create the directory if it does not exist
+        return Files.createDirectories(uniqueDirPath);
     }
 }
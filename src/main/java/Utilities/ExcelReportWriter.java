@@ -0,0 +1,202 @@
+package Utilities;
+
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes report rows to an xlsx file with SXSSF, keeping only a bounded window of rows in memory.
+ * Cells share the styles of an {@link ExcelStyleRegistry}, and column widths are computed once from
+ * the values of the first rows instead of auto-sizing every column after every cell.
+ * Cells of the {@link ResponseCapture#BODY_FILE_COLUMN} column link to the response body file they name.
+ */
+public class ExcelReportWriter implements ReportWriter {
+
+    public static final int DEFAULT_ROW_WINDOW = 100;
+
+    private static final int WIDTH_SAMPLE_ROWS = 200;
+    private static final int MAX_COLUMN_WIDTH_CHARS = 80;
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private final Path file;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final ExcelStyleRegistry styles;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Integer> sampledWidths = new ArrayList<>();
+    private int rowIndex = 1;
+    private boolean closed;
+
+    /**
+     * Creates a writer for the given file and sheet.
+     *
+     * @param file      The xlsx file to create. An existing file is replaced.
+     * @param sheetName The name of the sheet to write.
+     * @param rowWindow The number of rows kept in memory before they are flushed to disk.
+     */
+    public ExcelReportWriter(Path file, String sheetName, int rowWindow) {
+        this.file = file;
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+        this.styles = new ExcelStyleRegistry(workbook);
+        this.sheet.createRow(0);
+    }
+
+    /**
+     * Writes a data row. Columns are taken from the keys of the first row; keys seen for the first time
+     * in a later row are appended as new columns while the header row is still in memory.
+     *
+     * @param data The row to write, mapping column names to values.
+     */
+    @Override
+    public void writeRow(Map<String, String> data) {
+        for (String key : data.keySet()) {
+            if (!columnNames.contains(key)) {
+                addColumn(key);
+            }
+        }
+
+        Row row = sheet.createRow(rowIndex);
+        for (int col = 0; col < columnNames.size(); col++) {
+            String value = data.get(columnNames.get(col));
+            Cell cell = row.createCell(col);
+            if (value != null) {
+                cell.setCellValue(value.length() > MAX_CELL_LENGTH ? value.substring(0, MAX_CELL_LENGTH) : value);
+                if (!value.isEmpty() && ResponseCapture.BODY_FILE_COLUMN.equals(columnNames.get(col))) {
+                    // The path is relative to the report, so the link keeps working when the results are moved
+                    Hyperlink link = workbook.getCreationHelper().createHyperlink(HyperlinkType.FILE);
+                    link.setAddress(value);
+                    cell.setHyperlink(link);
+                }
+            }
+            cell.setCellStyle(styles.getStyleFor(value));
+            if (rowIndex <= WIDTH_SAMPLE_ROWS) {
+                sampleWidth(col, value);
+            }
+        }
+        rowIndex++;
+    }
+
+    /**
+     * Writes the summary to its own sheet of the workbook, with the columns taken from the first summary row.
+     *
+     * @param summaryName The name of the summary, used as the sheet name.
+     * @param rows        The summary rows.
+     */
+    @Override
+    public void writeSummary(String summaryName, List<? extends Map<String, String>> rows) {
+        SXSSFSheet summarySheet = workbook.createSheet(summaryName);
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> summaryColumns = new ArrayList<>(rows.get(0).keySet());
+        Row headerRow = summarySheet.createRow(0);
+        for (int col = 0; col < summaryColumns.size(); col++) {
+            Cell cell = headerRow.createCell(col);
+            cell.setCellValue(summaryColumns.get(col));
+            cell.setCellStyle(styles.getHeaderStyle());
+        }
+        int[] widths = new int[summaryColumns.size()];
+        for (int rowNum = 0; rowNum < rows.size(); rowNum++) {
+            Row row = summarySheet.createRow(rowNum + 1);
+            for (int col = 0; col < summaryColumns.size(); col++) {
+                String value = rows.get(rowNum).get(summaryColumns.get(col));
+                Cell cell = row.createCell(col);
+                if (value != null) {
+                    cell.setCellValue(value);
+                    widths[col] = Math.max(widths[col], value.length());
+                }
+                cell.setCellStyle(styles.getStyleFor(value));
+            }
+        }
+        for (int col = 0; col < widths.length; col++) {
+            int widthChars = Math.min(MAX_COLUMN_WIDTH_CHARS, Math.max(widths[col], summaryColumns.get(col).length())) + 2;
+            summarySheet.setColumnWidth(col, widthChars * 256);
+        }
+    }
+
+    /**
+     * Flushes the rows still held in memory to the temporary sheet file.
+     *
+     * @throws IOException If the rows cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        sheet.flushRows();
+    }
+
+    /**
+     * Applies the sampled column widths, writes the workbook to the output file and deletes the temporary files.
+     *
+     * @throws IOException If the workbook cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (int col = 0; col < sampledWidths.size(); col++) {
+                int widthChars = Math.min(MAX_COLUMN_WIDTH_CHARS, sampledWidths.get(col)) + 2;
+                sheet.setColumnWidth(col, widthChars * 256);
+            }
+            try (OutputStream outputStream = Files.newOutputStream(file)) {
+                workbook.write(outputStream);
+            }
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void addColumn(String columnName) {
+        int col = columnNames.size();
+        columnNames.add(columnName);
+        sampledWidths.add(0);
+        sampleWidth(col, columnName);
+
+        Row headerRow = sheet.getRow(0);
+        if (headerRow == null) {
+            System.err.println("Column '" + columnName + "' appeared after the header row was flushed and has no header cell");
+            return;
+        }
+        Cell cell = headerRow.createCell(col);
+        cell.setCellValue(columnName);
+        cell.setCellStyle(styles.getHeaderStyle());
+    }
+
+    /**
+     * Records the width of the longest line of the value for the column.
+     */
+    private void sampleWidth(int col, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        int longestLine = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == '\n') {
+                longestLine = Math.max(longestLine, i - lineStart);
+                lineStart = i + 1;
+                if (longestLine >= MAX_COLUMN_WIDTH_CHARS) {
+                    break;
+                }
+            }
+        }
+        if (longestLine > sampledWidths.get(col)) {
+            sampledWidths.set(col, longestLine);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package Utilities;
+
+import org.apache.poi.ss.usermodel.*;
+
+/**
+ * Holds the small fixed set of cell styles used by the Excel reports.
+ * Each style is created once per workbook and shared by every cell, which keeps large reports
+ * well below the workbook's cell style limit.
+ */
+public class ExcelStyleRegistry {
+
+    private final CellStyle headerStyle;
+    private final CellStyle passStyle;
+    private final CellStyle failStyle;
+    private final CellStyle circuitOpenStyle;
+    private final CellStyle defaultStyle;
+
+    /**
+     * Creates the report styles in the given workbook.
+     *
+     * @param workbook The workbook the styles belong to.
+     */
+    public ExcelStyleRegistry(Workbook workbook) {
+        Font boldFont = workbook.createFont();
+        boldFont.setBold(true);
+
+        defaultStyle = createCellStyle(workbook);
+        headerStyle = createColoredCellStyle(workbook, IndexedColors.SKY_BLUE, boldFont);
+        passStyle = createColoredCellStyle(workbook, IndexedColors.GREEN, boldFont);
+        failStyle = createColoredCellStyle(workbook, IndexedColors.RED, boldFont);
+        circuitOpenStyle = createColoredCellStyle(workbook, IndexedColors.ORANGE, boldFont);
+    }
+
+    /**
+     * Returns the style for a header cell.
+     *
+     * @return The header style.
+     */
+    public CellStyle getHeaderStyle() {
+        return headerStyle;
+    }
+
+    /**
+     * Returns the style for a data cell, based on its value.
+     *
+     * @param value The value of the cell.
+     * @return The pass, fail or circuit open style for PASS/FAIL/CIRCUIT_OPEN values, otherwise the default style.
+     */
+    public CellStyle getStyleFor(String value) {
+        if ("pass".equalsIgnoreCase(value)) {
+            return passStyle;
+        } else if ("fail".equalsIgnoreCase(value)) {
+            return failStyle;
+        } else if (CircuitBreaker.CIRCUIT_OPEN.equals(value)) {
+            return circuitOpenStyle;
+        }
+        return defaultStyle;
+    }
+
+    /**
+     * Creates a cell style with default settings.
+     *
+     * @param workbook The workbook to create the cell style for.
+     * @return The created cell style.
+     */
+    private static CellStyle createCellStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        style.setWrapText(true);
+        style.setVerticalAlignment(VerticalAlignment.TOP);
+        style.setAlignment(HorizontalAlignment.LEFT);
+        style.setBorderTop(BorderStyle.MEDIUM);
+        style.setBorderBottom(BorderStyle.MEDIUM);
+        style.setBorderLeft(BorderStyle.MEDIUM);
+        style.setBorderRight(BorderStyle.MEDIUM);
+        style.setFillForegroundColor(IndexedColors.WHITE1.getIndex());
+        return style;
+    }
+
+    /**
+     * Creates a default cell style filled with the given color and using the given font.
+     *
+     * @param workbook The workbook to create the cell style for.
+     * @param color    The fill color.
+     * @param font     The font of the cell.
+     * @return The created cell style.
+     */
+    private static CellStyle createColoredCellStyle(Workbook workbook, IndexedColors color, Font font) {
+        CellStyle style = createCellStyle(workbook);
+        style.setFillForegroundColor(color.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setFont(font);
+        return style;
+    }
+}
@@ -0,0 +1,57 @@
+package Utilities;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Buffers the log of one request/response exchange until {@link RequestLogger} decides whether to write it.
+ */
+public class ExchangeLog {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final PrintStream printStream = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+    private final boolean alwaysWrite;
+
+    ExchangeLog(boolean alwaysWrite) {
+        this.alwaysWrite = alwaysWrite;
+    }
+
+    /**
+     * Returns the RestAssured filters that log the request and response into this buffer.
+     *
+     * @return The logging filters.
+     */
+    public List<Filter> getFilters() {
+        return Arrays.asList(new RequestLoggingFilter(LogDetail.ALL, true, printStream),
+                new ResponseLoggingFilter(LogDetail.ALL, true, printStream));
+    }
+
+    /**
+     * Appends text to the log, for transports that do not use RestAssured filters.
+     *
+     * @param text The text to append.
+     */
+    public void append(String text) {
+        printStream.println(text);
+    }
+
+    /**
+     * @return Whether the exchange is written regardless of its outcome.
+     */
+    boolean isAlwaysWrite() {
+        return alwaysWrite;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package Utilities;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of requests that may be in flight against a single host at the same time.
+ */
+public class HostLimiter {
+
+    private final int maxRequestsPerHost;
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a limiter allowing the given number of concurrent requests per host.
+     *
+     * @param maxRequestsPerHost The maximum number of concurrent requests per host. Values below 1 disable the cap.
+     */
+    public HostLimiter(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Runs the given task once a permit for the host of the URL is available.
+     *
+     * @param url  The URL the task sends its request to.
+     * @param task The task to run.
+     * @param <T>  The result type of the task.
+     * @return The result of the task.
+     * @throws Exception If the task fails or the thread is interrupted while waiting for a permit.
+     */
+    public <T> T execute(String url, Callable<T> task) throws Exception {
+        if (maxRequestsPerHost < 1) {
+            return task.call();
+        }
+        Semaphore permits = permitsByHost.computeIfAbsent(hostOf(url), host -> new Semaphore(maxRequestsPerHost, true));
+        permits.acquire();
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Starts the given asynchronous task once a permit for the host of the URL is available.
+     * The calling thread blocks while the host is at its cap, which applies back-pressure to the submitter.
+     * The permit is released when the returned future completes.
+     *
+     * @param url  The URL the task sends its request to.
+     * @param task The task starting the asynchronous request.
+     * @param <T>  The result type of the task.
+     * @return The future returned by the task.
+     * @throws InterruptedException If the thread is interrupted while waiting for a permit.
+     */
+    public <T> CompletableFuture<T> executeAsync(String url, Supplier<CompletableFuture<T>> task) throws InterruptedException {
+        if (maxRequestsPerHost < 1) {
+            return task.get();
+        }
+        Semaphore permits = permitsByHost.computeIfAbsent(hostOf(url), host -> new Semaphore(maxRequestsPerHost, true));
+        permits.acquire();
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> permits.release());
+    }
+
+    /**
+     * Extracts the host and port part of a URL, falling back to the raw value when it cannot be parsed.
+     *
+     * @param url The URL to inspect.
+     * @return The "host:port" key for the URL.
+     */
+    static String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getHost() != null) {
+                return uri.getHost().toLowerCase() + ":" + uri.getPort();
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a valid URI, use it as is
+        }
+        return url.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,56 @@
+package Utilities;
+
+/**
+ * Enum representing the HTTP methods supported in the data-driven sheets.
+ */
+public enum HttpMethod {
+    GET(false, true),
+    POST(true, false),
+    PUT(true, true),
+    DELETE(false, true),
+    PATCH(true, false);
+
+    private final boolean hasBody;
+    private final boolean idempotent;
+
+    HttpMethod(boolean hasBody, boolean idempotent) {
+        this.hasBody = hasBody;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Returns whether requests with this method carry the request body of the row.
+     *
+     * @return True for POST, PUT and PATCH.
+     */
+    public boolean hasBody() {
+        return hasBody;
+    }
+
+    /**
+     * Returns whether repeating a request with this method has the same effect as sending it once.
+     *
+     * @return True for GET, PUT and DELETE.
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Looks up a method by name, ignoring case and surrounding whitespace.
+     *
+     * @param name The method name from the sheet.
+     * @return The matching method, or null if the name is not a supported method.
+     */
+    public static HttpMethod fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (HttpMethod method : values()) {
+            if (method.name().equalsIgnoreCase(name.trim())) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
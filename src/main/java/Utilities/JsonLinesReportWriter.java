@@ -0,0 +1,68 @@
+package Utilities;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes report rows as JSON Lines: one JSON object per line, with the columns in row order.
+ */
+public class JsonLinesReportWriter implements ReportWriter {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Path file;
+    private final OutputStream outputStream;
+    private final JsonGenerator generator;
+
+    /**
+     * Creates a writer for the given file.
+     *
+     * @param file The JSON Lines file to create. An existing file is replaced.
+     * @throws IOException If the file cannot be created.
+     */
+    public JsonLinesReportWriter(Path file) throws IOException {
+        this.file = file;
+        this.outputStream = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        this.generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeRow(Map<String, String> row) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, String> column : row.entrySet()) {
+            generator.writeStringField(column.getKey(), column.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void writeSummary(String summaryName, List<? extends Map<String, String>> rows) throws IOException {
+        try (JsonLinesReportWriter summaryWriter = new JsonLinesReportWriter(ReportWriter.summaryFile(file, summaryName))) {
+            for (Map<String, String> row : rows) {
+                summaryWriter.writeRow(row);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        outputStream.close();
+    }
+}
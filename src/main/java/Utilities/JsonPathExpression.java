@@ -0,0 +1,240 @@
+package Utilities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A compiled JSONPath expression in the subset used by sheet columns: "$" followed by ".name", "['name']" and
+ * "[index]" steps, optionally ending in ".length()", e.g. "$.data.items[0].id" or "$.items.length()".
+ * Values are extracted from a response body in a single streaming pass that only descends into the members on
+ * the path of some expression and skips everything else, so no tree of the whole body is ever built.
+ */
+public class JsonPathExpression {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String LENGTH_FUNCTION = "length()";
+
+    private final String expression;
+    // Each step is either a String member name or an Integer array index
+    private final Object[] steps;
+    private final boolean length;
+
+    private JsonPathExpression(String expression, Object[] steps, boolean length) {
+        this.expression = expression;
+        this.steps = steps;
+        this.length = length;
+    }
+
+    /**
+     * Compiles a JSONPath expression.
+     *
+     * @param expression The expression, starting with "$".
+     * @return The compiled expression.
+     * @throws IllegalArgumentException If the expression is not in the supported subset.
+     */
+    public static JsonPathExpression compile(String expression) {
+        String path = expression.trim();
+        if (!path.startsWith("$")) {
+            throw new IllegalArgumentException("JSONPath '" + expression + "' must start with '$'");
+        }
+        List<Object> steps = new ArrayList<>();
+        boolean length = false;
+        int pos = 1;
+        while (pos < path.length()) {
+            if (length) {
+                throw new IllegalArgumentException("JSONPath '" + expression + "' may only use length() as its last step");
+            }
+            char c = path.charAt(pos);
+            if (c == '.') {
+                int end = pos + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                String name = path.substring(pos + 1, end);
+                if (name.isEmpty() || name.equals("*")) {
+                    throw new IllegalArgumentException("JSONPath '" + expression + "' has an unsupported step at position " + pos);
+                }
+                if (name.equals(LENGTH_FUNCTION)) {
+                    length = true;
+                } else {
+                    steps.add(name);
+                }
+                pos = end;
+            } else if (c == '[') {
+                int end = path.indexOf(']', pos);
+                if (end < 0) {
+                    throw new IllegalArgumentException("JSONPath '" + expression + "' has an unclosed '['");
+                }
+                String step = path.substring(pos + 1, end).trim();
+                if (step.length() >= 2 && (step.charAt(0) == '\'' || step.charAt(0) == '"') && step.charAt(step.length() - 1) == step.charAt(0)) {
+                    steps.add(step.substring(1, step.length() - 1));
+                } else if (step.matches("[0-9]+")) {
+                    steps.add(Integer.valueOf(step));
+                } else {
+                    throw new IllegalArgumentException("JSONPath '" + expression + "' has an unsupported step [" + step + "]");
+                }
+                pos = end + 1;
+            } else {
+                throw new IllegalArgumentException("JSONPath '" + expression + "' has an unexpected '" + c + "' at position " + pos);
+            }
+        }
+        return new JsonPathExpression(path, steps.toArray(), length);
+    }
+
+    /**
+     * Extracts the values of several expressions from a JSON document in one streaming pass.
+     * The value of a ".length()" expression is the number of elements of an array, members of an object or
+     * characters of a string.
+     *
+     * @param body        The JSON document.
+     * @param expressions The expressions to extract.
+     * @return The values found, keyed by expression. Expressions that match nothing have no entry.
+     * @throws IOException If the document is not valid JSON.
+     */
+    public static Map<JsonPathExpression, JsonNode> extract(byte[] body, Collection<JsonPathExpression> expressions) throws IOException {
+        Map<JsonPathExpression, JsonNode> values = new HashMap<>();
+        if (expressions.isEmpty()) {
+            return values;
+        }
+        List<JsonPathExpression> distinct = new ArrayList<>(new LinkedHashSet<>(expressions));
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != null) {
+                walk(parser, distinct, 0, values, new int[]{distinct.size()});
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Visits the value the parser is positioned on, which is reached by the first {@code depth} steps of every
+     * given expression, and records the values of the expressions that end here.
+     *
+     * @param remaining The number of expressions still without a value; the walk stops as soon as it reaches zero.
+     */
+    private static void walk(JsonParser parser, List<JsonPathExpression> expressions, int depth,
+                             Map<JsonPathExpression, JsonNode> values, int[] remaining) throws IOException {
+        List<JsonPathExpression> deeper = new ArrayList<>();
+        List<JsonPathExpression> lengths = new ArrayList<>();
+        boolean needsValue = false;
+        for (JsonPathExpression expression : expressions) {
+            if (expression.steps.length > depth) {
+                deeper.add(expression);
+            } else if (expression.length) {
+                lengths.add(expression);
+            } else {
+                needsValue = true;
+            }
+        }
+
+        JsonToken token = parser.currentToken();
+        if (needsValue) {
+            // Only the value itself is read into a tree, and the remaining steps of the other expressions are resolved on it
+            JsonNode node = objectMapper.readTree(parser);
+            for (JsonPathExpression expression : expressions) {
+                JsonNode value = expression.resolve(node, depth);
+                if (value != null) {
+                    values.put(expression, value);
+                }
+            }
+            remaining[0] -= expressions.size();
+            return;
+        }
+        if (!token.isStructStart()) {
+            for (JsonPathExpression expression : lengths) {
+                if (token == JsonToken.VALUE_STRING) {
+                    values.put(expression, JsonNodeFactory.instance.numberNode(parser.getText().length()));
+                }
+            }
+            remaining[0] -= expressions.size();
+            return;
+        }
+
+        int count = 0;
+        int walked = 0;
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                count++;
+                List<JsonPathExpression> matching = matching(deeper, depth, name);
+                if (matching.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    walked += matching.size();
+                    walk(parser, matching, depth + 1, values, remaining);
+                    if (remaining[0] == 0) {
+                        return;
+                    }
+                }
+            }
+        } else {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                List<JsonPathExpression> matching = matching(deeper, depth, count);
+                count++;
+                if (matching.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    walked += matching.size();
+                    walk(parser, matching, depth + 1, values, remaining);
+                    if (remaining[0] == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+        for (JsonPathExpression expression : lengths) {
+            values.put(expression, JsonNodeFactory.instance.numberNode(count));
+        }
+        // The walks into the members have already counted the expressions they settled
+        remaining[0] -= expressions.size() - walked;
+    }
+
+    private static List<JsonPathExpression> matching(List<JsonPathExpression> expressions, int depth, Object step) {
+        List<JsonPathExpression> matching = new ArrayList<>();
+        for (JsonPathExpression expression : expressions) {
+            if (expression.steps[depth].equals(step)) {
+                matching.add(expression);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Resolves the steps from the given depth on against a tree.
+     *
+     * @return The value, or null if the expression matches nothing.
+     */
+    private JsonNode resolve(JsonNode node, int fromStep) {
+        for (int i = fromStep; i < steps.length && node != null; i++) {
+            node = steps[i] instanceof Integer ? node.get((Integer) steps[i]) : node.get((String) steps[i]);
+        }
+        if (node == null || !length) {
+            return node;
+        }
+        if (node.isContainerNode()) {
+            return JsonNodeFactory.instance.numberNode(node.size());
+        }
+        return node.isTextual() ? JsonNodeFactory.instance.numberNode(node.asText().length()) : null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof JsonPathExpression && expression.equals(((JsonPathExpression) other).expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
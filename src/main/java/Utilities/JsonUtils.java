@@ -1,5 +1,12 @@
 package Utilities;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
@@ -9,6 +16,7 @@ import org.json.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.*;
 
 /**
@@ -16,6 +24,12 @@ import java.util.*;
  */
 public class JsonUtils {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Lenient about the quoting and trailing commas people type into sheet cells
+    static final JsonFactory jsonFactory = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .build();
 
     /**
      * Reads JSON data from a file and returns it as a map.
@@ -50,33 +64,31 @@ public class JsonUtils {
     }
 
     /**
-     * Parses a JSON object string and returns it as a map.
+     * Parses a JSON object string and returns its fields as a map, in field order.
+     * Nested objects and arrays are returned as their JSON text, and other values as their text without quotes.
+     * A blank string is an empty object.
      *
      * @param jsonObjectString The JSON object string to parse.
      * @return A map representing the parsed JSON object.
+     * @throws IllegalArgumentException If the string is not a JSON object.
      */
     public static Map<String, String> parseJsonObject(String jsonObjectString) {
-        Map<String, String> jsonObjectMap = new HashMap<>();
-
-        // Remove leading and trailing braces from the JSON string
-        jsonObjectString = jsonObjectString.replace("{", "").replace("}", "");
-
-        // Split the JSON string by commas to separate key-value pairs
-        String[] keyValues = jsonObjectString.split(",");
-
-        // Iterate through each key-value pair
-        for (String keyValue : keyValues) {
-            // Split the pair by colon to get the key and value
-            String[] pair = keyValue.split(":");
-            if (pair.length == 2) {
-                // Trim and remove surrounding quotes from the key and value
-                String key = pair[0].trim().replaceAll("^\"|\"$", "");
-                String value = pair[1].trim().replaceAll("^\"|\"$", "");
-                // Put the key-value pair into the map
-                jsonObjectMap.put(key, value);
-            }
+        Map<String, String> jsonObjectMap = new LinkedHashMap<>();
+        if (jsonObjectString == null || jsonObjectString.trim().isEmpty()) {
+            return jsonObjectMap;
         }
 
+        try (JsonParser parser = jsonFactory.createParser(jsonObjectString)) {
+            expectToken(parser, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                jsonObjectMap.put(key, value.isStructStart() ? copyStructure(parser) : parser.getText());
+            }
+            expectToken(parser, null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON object: " + e.getMessage(), e);
+        }
         return jsonObjectMap;
     }
 
@@ -85,109 +97,122 @@ public class JsonUtils {
      *
      * @param input The input object to convert.
      * @return A JSON string representation of the input object.
-     * @throws IllegalArgumentException If the input is not a Map or List<Map<String, String>>.
+     * @throws IllegalArgumentException If the input is not a Map or List.
      */
     public static String convertToJsonString(Object input) {
-        if (input instanceof Map) {
-            return convertMapToJsonString((Map<String, String>) input);
-        } else if (input instanceof List) {
-            return convertListOfMapsToJsonString((List<Map<String, String>>) input);
-        } else {
-            throw new IllegalArgumentException("Input must be a Map or List<Map<String, String>>");
+        if (!(input instanceof Map) && !(input instanceof List)) {
+            throw new IllegalArgumentException("Input must be a Map or List");
+        }
+        try {
+            return objectMapper.writeValueAsString(input);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to convert to JSON: " + e.getMessage(), e);
         }
     }
 
-    private static String convertListOfMapsToJsonString(List<Map<String, String>> listOfMaps) {
-        StringBuilder jsonBuilder = new StringBuilder("[");
-
-        for (Map<String, String> map : listOfMaps) {
-            jsonBuilder.append(convertMapToJsonString(map)).append(",");
+    /**
+     * Generates a map with random values based on a provided JSON object string.
+     * The structure and the number, boolean and null values of the template are kept; every string value
+     * that is a $Random keyword, at any depth, is replaced with a random value. A blank string is an empty object.
+     *
+     * @param jsonObjectString The JSON object string containing key-value pairs.
+     * @return A map with keys from the JSON object string and corresponding random values.
+     * @throws IllegalArgumentException If the string is not a JSON object or uses an unknown keyword.
+     */
+    public static Map<String, Object> randomRequestJsonObject(String jsonObjectString) {
+        if (jsonObjectString == null || jsonObjectString.trim().isEmpty()) {
+            return new LinkedHashMap<>();
         }
 
-        // Remove the trailing comma if there's at least one map
-        if (!listOfMaps.isEmpty()) {
-            jsonBuilder.deleteCharAt(jsonBuilder.length() - 1);
+        try (JsonParser parser = jsonFactory.createParser(jsonObjectString)) {
+            expectToken(parser, JsonToken.START_OBJECT);
+            Map<String, Object> jsonObjectMap = readRandomObject(parser);
+            expectToken(parser, null);
+            return jsonObjectMap;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON object: " + e.getMessage(), e);
         }
-
-        jsonBuilder.append("]");
-
-        return jsonBuilder.toString();
     }
 
-    private static String convertMapToJsonString(Map<String, String> jsonObjectMap) {
-        StringBuilder jsonBuilder = new StringBuilder("{");
-
-        for (Map.Entry<String, String> entry : jsonObjectMap.entrySet()) {
-            // Append key and value with surrounding quotes
-            jsonBuilder.append("\"").append(entry.getKey()).append("\":\"").append(entry.getValue()).append("\",");
+    /**
+     * Reads the fields of the object whose START_OBJECT token is the current token.
+     */
+    private static Map<String, Object> readRandomObject(JsonParser parser) throws IOException {
+        Map<String, Object> jsonObjectMap = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            jsonObjectMap.put(key, readRandomValue(parser));
         }
+        return jsonObjectMap;
+    }
 
-        // Remove the trailing comma if there's at least one entry
-        if (!jsonObjectMap.isEmpty()) {
-            jsonBuilder.deleteCharAt(jsonBuilder.length() - 1);
+    /**
+     * Reads the value starting at the current token, replacing $Random keywords.
+     */
+    private static Object readRandomValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of JSON");
         }
+        switch (token) {
+            case START_OBJECT:
+                return readRandomObject(parser);
+            case START_ARRAY:
+                List<Object> values = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    values.add(readRandomValue(parser));
+                }
+                return values;
+            case VALUE_STRING:
+                return getRandomValue(parser.getText());
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDecimalValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
 
-        jsonBuilder.append("}");
-
-        return jsonBuilder.toString();
+    /**
+     * Advances the parser and fails unless it is at the expected token; null expects the end of the input.
+     */
+    private static void expectToken(JsonParser parser, JsonToken expected) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != expected) {
+            throw new JsonParseException(parser, expected == null
+                    ? "Unexpected content after the JSON object"
+                    : "Expected a JSON object but found " + token);
+        }
     }
 
     /**
-     * Generates a map with random values based on a provided JSON object string.
-     *
-     * @param jsonObjectString The JSON object string containing key-value pairs.
-     * @return A map with keys from the JSON object string and corresponding random values.
+     * Returns the JSON text of the object or array starting at the current token.
      */
-    public static Map<String, String> randomRequestJsonObject(String jsonObjectString) {
-        Map<String, String> jsonObjectMap = new HashMap<>();
-
-        // Remove leading and trailing braces from the JSON string
-        jsonObjectString = jsonObjectString.replace("{", "").replace("}", "");
-
-        // Split the JSON string by commas to separate key-value pairs
-        String[] keyValues = jsonObjectString.split(",");
-
-        // Iterate through each key-value pair
-        for (String keyValue : keyValues) {
-            // Split the pair by colon to get the key and value
-            String[] pair = keyValue.split(":");
-            if (pair.length == 2) {
-                // Trim and remove surrounding quotes from the key and value
-                String key = pair[0].trim().replaceAll("^\"|\"$", "");
-                String value = pair[1].trim().replaceAll("^\"|\"$", "");
-                String responseValue = getRandomValue(value);
-                jsonObjectMap.put(key, responseValue);
-            }
+    private static String copyStructure(JsonParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
         }
-        return jsonObjectMap;
+        return writer.toString();
     }
 
     private static String getRandomValue(String value) {
-        if (value.contains("$")) {
-            switch (value.replace("$Random", "").toUpperCase()) {
-                case "PASTDATE":
-                    return RandomDataGenerator.getRandomPastDate();
-                case "FUTUREDATE":
-                    return RandomDataGenerator.getRandomFutureDate();
-                case "FULLNAME":
-                    return RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.FULLNAME);
-                case "FIRSTNAME":
-                    return RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.FIRSTNAME);
-                case "LASTNAME":
-                    return RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.LASTNAME);
-                case "EMAIL":
-                    return RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.EMAIL);
-                case "BOOLEANVALUE":
-                    return String.valueOf(RandomDataGenerator.getRandomBooleanValue());
-                case "COMPUTERIP":
-                    return RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.IP_ADDRESS);
-                default:
-                    System.out.println("Unsupported Key word " + value.replace("$Random", "").toUpperCase());
-                    return value;
-            }
-        } else {
-            return value;
+        RandomKeyword keyword = RandomKeyword.fromPlaceholder(value);
+        if (keyword != null) {
+            return keyword.generate();
+        }
+        if (value.contains(RandomKeyword.PREFIX)) {
+            throw new IllegalArgumentException("Unknown keyword " + value);
         }
+        return value;
     }
 
     public static JsonObject convertToJsonObject(Object object) {
@@ -0,0 +1,311 @@
+package Utilities;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Replays the request plans of a sheet as a load test, cycling through the rows for as long as the load runs.
+ * Two profiles are supported:
+ * <ul>
+ *     <li>an open model, where requests are started at a target arrival rate by a token-bucket scheduler,
+ *     independently of how fast earlier requests complete. The rate follows a list of stages and ramps linearly
+ *     from the rate of the previous stage to the rate of the current one;</li>
+ *     <li>a closed model, where a fixed number of virtual users each send their next request as soon as the
+ *     previous one has completed, for a fixed duration.</li>
+ * </ul>
+ * Both return one summary row per stage plus a total row, with the achieved throughput and error rate.
+ */
+public class LoadGenerator {
+
+    private static final long MAX_SCHEDULER_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final List<RequestPlan> plans;
+    private final Function<RequestPlan, LinkedHashMap<String, String>> requestExecutor;
+    private final AtomicLong nextPlan = new AtomicLong();
+
+    /**
+     * Creates a load generator.
+     *
+     * @param plans           The request plans to replay, in sheet order.
+     * @param requestExecutor Executes a plan and returns its result row, whose "PassOrFail" column tells if it failed.
+     */
+    public LoadGenerator(List<RequestPlan> plans, Function<RequestPlan, LinkedHashMap<String, String>> requestExecutor) {
+        if (plans.isEmpty()) {
+            throw new IllegalArgumentException("The sheet has no valid rows to replay");
+        }
+        this.plans = plans;
+        this.requestExecutor = requestExecutor;
+    }
+
+    /**
+     * Runs the open model: starts requests at the arrival rate of each stage in turn.
+     * An arrival that finds {@code maxInFlight} requests still running is counted as dropped instead of being delayed,
+     * so a slow server shows up as dropped requests rather than as a silently lower rate.
+     *
+     * @param stages      The rate stages.
+     * @param maxInFlight The maximum number of concurrent requests.
+     * @return The summary rows.
+     * @throws InterruptedException If interrupted while the load is running.
+     */
+    public List<LinkedHashMap<String, String>> runArrivalRate(List<Stage> stages, int maxInFlight) throws InterruptedException {
+        ExecutorService workers = Executors.newCachedThreadPool(newThreadFactory("load-worker-"));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Counters> stageCounters = new ArrayList<>();
+        try {
+            TokenBucket tokenBucket = new TokenBucket();
+            double previousRate = stages.get(0).getRequestsPerSecond();
+            for (Stage stage : stages) {
+                Counters counters = new Counters();
+                stageCounters.add(counters);
+                long stageStart = System.nanoTime();
+                long stageNanos = stage.getDuration().toNanos();
+                long now;
+                while ((now = System.nanoTime()) - stageStart < stageNanos) {
+                    double progress = (now - stageStart) / (double) stageNanos;
+                    double rate = previousRate + (stage.getRequestsPerSecond() - previousRate) * progress;
+                    if (!tokenBucket.tryAcquire(rate, now)) {
+                        long sleepNanos = Math.min(tokenBucket.nanosUntilNextToken(rate), stageNanos - (now - stageStart));
+                        TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(sleepNanos, MAX_SCHEDULER_SLEEP_NANOS)));
+                        continue;
+                    }
+                    if (!inFlight.tryAcquire()) {
+                        counters.dropped.incrementAndGet();
+                        continue;
+                    }
+                    RequestPlan plan = nextPlan();
+                    workers.execute(() -> {
+                        try {
+                            execute(plan, counters);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                counters.elapsedNanos = System.nanoTime() - stageStart;
+                previousRate = stage.getRequestsPerSecond();
+            }
+            // Wait for the requests still in flight, so every stage is complete
+            inFlight.acquire(maxInFlight);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        List<LinkedHashMap<String, String>> summary = new ArrayList<>();
+        Counters total = new Counters();
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            Counters counters = stageCounters.get(i);
+            summary.add(summaryRow(stage.toString(), String.valueOf(stage.getRequestsPerSecond()), counters));
+            total.add(counters);
+        }
+        summary.add(summaryRow("Total", "", total));
+        return summary;
+    }
+
+    /**
+     * Runs the closed model: each virtual user loops over the sheet until the duration has elapsed.
+     *
+     * @param virtualUsers The number of concurrent virtual users.
+     * @param duration     How long the load runs.
+     * @return The summary rows.
+     * @throws InterruptedException If interrupted while the load is running.
+     */
+    public List<LinkedHashMap<String, String>> runVirtualUsers(int virtualUsers, Duration duration) throws InterruptedException {
+        ExecutorService users = Executors.newFixedThreadPool(virtualUsers, newThreadFactory("virtual-user-"));
+        Counters counters = new Counters();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try {
+            for (int i = 0; i < virtualUsers; i++) {
+                users.execute(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(nextPlan(), counters);
+                    }
+                });
+            }
+            users.shutdown();
+            while (!users.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("Waiting for virtual users to complete their last request");
+            }
+        } finally {
+            users.shutdownNow();
+        }
+        counters.elapsedNanos = System.nanoTime() - start;
+
+        List<LinkedHashMap<String, String>> summary = new ArrayList<>();
+        summary.add(summaryRow(virtualUsers + " virtual users for " + duration.getSeconds() + "s", "", counters));
+        return summary;
+    }
+
+    /**
+     * Parses comma-separated rate stages in the form "requestsPerSecond:duration", e.g. "10:30s,50:2m".
+     *
+     * @param stages The stages setting.
+     * @return The stages.
+     * @throws IllegalArgumentException If a stage is malformed.
+     */
+    public static List<Stage> parseStages(String stages) {
+        List<Stage> parsedStages = new ArrayList<>();
+        for (String stage : stages.split(",")) {
+            String[] parts = stage.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Load stage '" + stage.trim() + "' is not in the form requestsPerSecond:duration");
+            }
+            double requestsPerSecond;
+            try {
+                requestsPerSecond = Double.parseDouble(parts[0].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Load stage '" + stage.trim() + "' has an invalid rate");
+            }
+            if (requestsPerSecond < 0) {
+                throw new IllegalArgumentException("Load stage '" + stage.trim() + "' has a negative rate");
+            }
+            parsedStages.add(new Stage(requestsPerSecond, parseDuration(parts[1])));
+        }
+        return parsedStages;
+    }
+
+    /**
+     * Parses a duration such as "500ms", "30s", "2m" or "1h". A plain number is taken as seconds.
+     *
+     * @param duration The duration setting.
+     * @return The duration.
+     * @throws IllegalArgumentException If the duration is malformed.
+     */
+    public static Duration parseDuration(String duration) {
+        String value = duration.trim().toLowerCase();
+        try {
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+            } else if (value.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1).trim()));
+            } else if (value.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1).trim()));
+            } else if (value.endsWith("h")) {
+                return Duration.ofHours(Long.parseLong(value.substring(0, value.length() - 1).trim()));
+            }
+            return Duration.ofSeconds(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration '" + duration + "'");
+        }
+    }
+
+    private RequestPlan nextPlan() {
+        return plans.get((int) (nextPlan.getAndIncrement() % plans.size()));
+    }
+
+    private void execute(RequestPlan plan, Counters counters) {
+        counters.requests.incrementAndGet();
+        try {
+            LinkedHashMap<String, String> result = requestExecutor.apply(plan);
+            if ("FAIL".equals(result.get("PassOrFail")) || CircuitBreaker.CIRCUIT_OPEN.equals(result.get("PassOrFail"))) {
+                counters.failed.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            counters.failed.incrementAndGet();
+        }
+    }
+
+    private static LinkedHashMap<String, String> summaryRow(String stage, String targetRate, Counters counters) {
+        long requests = counters.requests.get();
+        long failed = counters.failed.get();
+        double seconds = counters.elapsedNanos / 1_000_000_000.0;
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("Stage", stage);
+        row.put("TargetRequestsPerSec", targetRate);
+        row.put("DurationSec", String.format("%.1f", seconds));
+        row.put("Requests", String.valueOf(requests));
+        row.put("Failed", String.valueOf(failed));
+        row.put("Dropped", String.valueOf(counters.dropped.get()));
+        row.put("ErrorRate", requests == 0 ? "" : String.format("%.2f%%", failed * 100.0 / requests));
+        row.put("AchievedRequestsPerSec", seconds == 0 ? "" : String.format("%.2f", requests / seconds));
+        return row;
+    }
+
+    private static ThreadFactory newThreadFactory(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A load stage of the open model: the arrival rate reached at the end of the stage and how long it lasts.
+     */
+    public static class Stage {
+        private final double requestsPerSecond;
+        private final Duration duration;
+
+        public Stage(double requestsPerSecond, Duration duration) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.duration = duration;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return requestsPerSecond + "/s for " + duration.toMillis() / 1000.0 + "s";
+        }
+    }
+
+    /**
+     * Counts the requests of a stage.
+     */
+    private static class Counters {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        long elapsedNanos;
+
+        void add(Counters other) {
+            requests.addAndGet(other.requests.get());
+            failed.addAndGet(other.failed.get());
+            dropped.addAndGet(other.dropped.get());
+            elapsedNanos += other.elapsedNanos;
+        }
+    }
+
+    /**
+     * Hands out tokens at a varying rate, allowing a burst of at most 10ms worth of requests, so the scheduler
+     * can keep up with high rates despite the granularity of sleeping.
+     */
+    private static class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        boolean tryAcquire(double rate, long now) {
+            double capacity = Math.max(1, rate / 100);
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * rate / 1_000_000_000.0);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        long nanosUntilNextToken(double rate) {
+            if (rate <= 0) {
+                return MAX_SCHEDULER_SLEEP_NANOS;
+            }
+            return (long) ((1 - tokens) / rate * 1_000_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package Utilities;
+
+/**
+ * Enum representing when request/response exchanges are logged.
+ */
+public enum LogMode {
+    OFF,      // Nothing is logged
+    FAILURE,  // Exchanges are buffered and only logged when the row fails
+    SAMPLED,  // One in every N exchanges is logged
+    ALL       // Every exchange is logged
+}
@@ -0,0 +1,213 @@
+package Utilities;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request body template compiled once into literal JSON segments and $Random generator slots.
+ * Rendering only walks the segments, generating a value for each slot, so no JSON is parsed per request.
+ * <p>
+ * A keyword in quotes, e.g. {@code "email": "$RandomEmail"}, renders as a JSON string. A typed keyword
+ * without quotes, e.g. {@code "active": $RandomBooleanValue} or {@code "count": $RandomNumber}, renders as a
+ * bare number or boolean. Templates may nest objects and arrays; the rendered body is compact JSON.
+ */
+public class PayloadTemplate {
+
+    private static final PayloadTemplate EMPTY_OBJECT = new PayloadTemplate(new String[]{"{}"}, new RandomKeyword[0], new boolean[0]);
+    // Prefixes a bare keyword after it has been put in quotes, so the template can be read by a JSON parser
+    private static final String BARE_KEYWORD_MARKER = "\u0000";
+    private static final int MAX_REUSED_BUFFER_CHARS = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> renderBuffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String[] literals;
+    private final RandomKeyword[] slots;
+    private final boolean[] quotedSlots;
+
+    private PayloadTemplate(String[] literals, RandomKeyword[] slots, boolean[] quotedSlots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.quotedSlots = quotedSlots;
+    }
+
+    /**
+     * Compiles a request body template. A blank template renders as an empty JSON object.
+     *
+     * @param template The RequestBody cell.
+     * @return The compiled template.
+     * @throws IllegalArgumentException If the template is not valid JSON or uses an unknown keyword.
+     */
+    public static PayloadTemplate compile(String template) {
+        if (template == null || template.trim().isEmpty()) {
+            return EMPTY_OBJECT;
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<RandomKeyword> slots = new ArrayList<>();
+        List<Boolean> quotedSlots = new ArrayList<>();
+        StringWriter output = new StringWriter(template.length());
+        int literalStart = 0;
+        try (JsonParser parser = JsonUtils.jsonFactory.createParser(quoteBareKeywords(template));
+             JsonGenerator generator = JsonUtils.jsonFactory.createGenerator(output)) {
+            JsonToken token = parser.nextToken();
+            int depth = 0;
+            while (token != null) {
+                RandomKeyword keyword = null;
+                if (token == JsonToken.VALUE_STRING) {
+                    String text = parser.getText();
+                    boolean bare = text.startsWith(BARE_KEYWORD_MARKER);
+                    String placeholder = bare ? text.substring(BARE_KEYWORD_MARKER.length()) : text;
+                    keyword = RandomKeyword.fromPlaceholder(placeholder);
+                    if (keyword == null && (bare || text.contains(RandomKeyword.PREFIX))) {
+                        throw new IllegalArgumentException("Unknown keyword " + placeholder);
+                    } else if (keyword != null) {
+                        // Writes the separator before the value, but no value
+                        generator.writeRawValue("");
+                        generator.flush();
+                        StringBuffer written = output.getBuffer();
+                        literals.add(written.substring(literalStart));
+                        literalStart = written.length();
+                        slots.add(keyword);
+                        quotedSlots.add(!bare || !keyword.isTyped());
+                    }
+                }
+                if (keyword == null) {
+                    generator.copyCurrentEvent(parser);
+                }
+
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    break;
+                }
+                token = parser.nextToken();
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON value");
+            }
+            generator.flush();
+            literals.add(output.getBuffer().substring(literalStart));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+
+        boolean[] quoted = new boolean[quotedSlots.size()];
+        for (int i = 0; i < quoted.length; i++) {
+            quoted[i] = quotedSlots.get(i);
+        }
+        return new PayloadTemplate(literals.toArray(new String[0]), slots.toArray(new RandomKeyword[0]), quoted);
+    }
+
+    /**
+     * Renders the template with freshly generated values for every slot.
+     *
+     * @return The request body.
+     */
+    public String render() {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder buffer = renderBuffers.get();
+        buffer.setLength(0);
+        buffer.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = slots[i].generate();
+            if (quotedSlots[i]) {
+                appendQuoted(buffer, value);
+            } else {
+                buffer.append(value);
+            }
+            buffer.append(literals[i + 1]);
+        }
+        String body = buffer.toString();
+        if (buffer.capacity() > MAX_REUSED_BUFFER_CHARS) {
+            // Do not keep an unusually large buffer alive for the rest of the thread's life
+            renderBuffers.remove();
+        }
+        return body;
+    }
+
+    /**
+     * @return The number of generated values per rendered body.
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    /**
+     * Puts every $Random keyword outside of a string in quotes, prefixed with the bare keyword marker.
+     */
+    private static String quoteBareKeywords(String template) {
+        if (!template.contains(RandomKeyword.PREFIX)) {
+            return template;
+        }
+        StringBuilder json = new StringBuilder(template.length() + 16);
+        char quote = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (quote != 0) {
+                json.append(c);
+                if (c == '\\' && i + 1 < template.length()) {
+                    json.append(template.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                json.append(c);
+            } else if (template.startsWith(RandomKeyword.PREFIX, i)) {
+                int end = i + RandomKeyword.PREFIX.length();
+                while (end < template.length() && Character.isLetterOrDigit(template.charAt(end))) {
+                    end++;
+                }
+                json.append("\"\\u0000").append(template, i, end).append('"');
+                i = end - 1;
+            } else {
+                json.append(c);
+            }
+        }
+        return json.toString();
+    }
+
+    /**
+     * Appends a value as a JSON string.
+     */
+    private static void appendQuoted(StringBuilder buffer, String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+}
@@ -1,12 +1,15 @@
 package Utilities;
 
 import net.datafaker.Faker;
-import org.apache.commons.lang3.RandomStringUtils;
 
 /**
- * Utility class for generating random data.
+ * Utility class for generating random data. Values come from the thread-safe {@link RandomDataService}.
  */
 public class RandomDataGenerator {
+    /**
+     * @deprecated Shared between all threads, which Faker is not safe for; use {@link RandomDataService} instead.
+     */
+    @Deprecated
     public static Faker faker = new Faker();
 
     /**
@@ -16,24 +19,7 @@ public class RandomDataGenerator {
      * @return Random data as a string.
      */
     public static String getRandomDataFor(RandomDataTypeNames dataTypesNames) {
-        switch (dataTypesNames) {
-            case FIRSTNAME:
-                return faker.name().firstName();
-            case LASTNAME:
-                return faker.name().lastName();
-            case FULLNAME:
-                return faker.name().fullName();
-            case COUNTRY:
-                return faker.address().country();
-            case CITYNAME:
-                return faker.address().cityName();
-            case EMAIL:
-                return faker.name().fullName().toLowerCase() + "@" + faker.internet().domainName() + ".com";
-            case IP_ADDRESS:
-                return faker.internet().ipV4Address();
-            default:
-                return "Data type name not available";
-        }
+        return RandomDataService.generate(dataTypesNames);
     }
 
     /**
@@ -43,7 +29,7 @@ public class RandomDataGenerator {
      * @return Random number as a string.
      */
     public static String getRandomNumber(int count) {
-        return faker.number().digits(count);
+        return RandomDataService.digits(count);
     }
 
     /**
@@ -54,7 +40,7 @@ public class RandomDataGenerator {
      * @return Random number within the specified range.
      */
     public static int getRandomNumber(int min, int max) {
-        return faker.number().numberBetween(min, max);
+        return RandomDataService.nextInt(min, max);
     }
 
     /**
@@ -64,7 +50,7 @@ public class RandomDataGenerator {
      * @return Random alphabetic characters as a string.
      */
     public static String getRandomAlphabets(int count) {
-        return RandomStringUtils.randomAlphabetic(count);
+        return RandomDataService.alphabetic(count);
     }
 
     /**
@@ -109,6 +95,6 @@ public class RandomDataGenerator {
      * @return Random boolean value.
      */
     public static boolean getRandomBooleanValue() {
-        return faker.random().nextBoolean();
+        return RandomDataService.nextBoolean();
     }
 }
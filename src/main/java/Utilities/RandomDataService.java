@@ -0,0 +1,240 @@
+package Utilities;
+
+import net.datafaker.Faker;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates the random test data of a run.
+ * Every thread has its own {@link Random} and {@link Faker}, so generating values needs no locking, and dates
+ * are formatted with immutable java.time formatters.
+ * <p>
+ * Settings used: "randomSeed" makes runs reproducible: each thread's generator is seeded from it, in the order
+ * the threads first ask for a value, so a run with one thread generates the same values every time.
+ * "randomPoolSize" (default 0, off) keeps that many pre-generated values of every {@link RandomDataTypeNames}
+ * type, refilled by a background thread, so Faker does not run on the request path. Pools are not used
+ * when a seed is set, because their values would not be reproducible.
+ */
+public class RandomDataService {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    private static final long MAX_DATE_OFFSET_MILLIS = TimeUnit.DAYS.toMillis(365);
+    private static final long REFILL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static volatile Long seed;
+    private static volatile int generation;
+    private static final AtomicInteger seededThreads = new AtomicInteger();
+    private static final ThreadLocal<ThreadGenerators> threadGenerators = new ThreadLocal<>();
+    private static volatile Map<RandomDataTypeNames, BlockingQueue<String>> pools;
+    private static volatile Thread refillThread;
+
+    /**
+     * Applies the random data settings of a run, discarding the generators and pools of the previous run.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     */
+    public static synchronized void configure(RunConfig runConfig) {
+        String seedSetting = runConfig.getString("randomSeed", "").trim();
+        seed = seedSetting.isEmpty() ? null : Long.parseLong(seedSetting);
+        seededThreads.set(0);
+        generation++;
+
+        stopPools();
+        int poolSize = runConfig.getInt("randomPoolSize", 0);
+        if (poolSize > 0 && seed == null) {
+            startPools(poolSize);
+        }
+    }
+
+    /**
+     * Returns a random value of the given type, from its pool when pools are enabled and the pool is not empty.
+     *
+     * @param type The type of random data.
+     * @return The random value.
+     */
+    public static String generate(RandomDataTypeNames type) {
+        Map<RandomDataTypeNames, BlockingQueue<String>> currentPools = pools;
+        if (currentPools != null) {
+            String value = currentPools.get(type).poll();
+            if (value != null) {
+                return value;
+            }
+            LockSupport.unpark(refillThread);
+        }
+        return generateDirectly(type);
+    }
+
+    /**
+     * @return A random date-time within the past year, formatted as "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
+     */
+    public static String pastDate() {
+        return formatTimestamp(System.currentTimeMillis() - 1 - nextLong(MAX_DATE_OFFSET_MILLIS));
+    }
+
+    /**
+     * @return A random date-time within the next year, formatted as "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
+     */
+    public static String futureDate() {
+        return formatTimestamp(System.currentTimeMillis() + 1 + nextLong(MAX_DATE_OFFSET_MILLIS));
+    }
+
+    /**
+     * @return A random boolean.
+     */
+    public static boolean nextBoolean() {
+        return generators().random.nextBoolean();
+    }
+
+    /**
+     * Returns a random number within a range.
+     *
+     * @param min The minimum value (inclusive).
+     * @param max The maximum value (exclusive).
+     * @return The random number.
+     */
+    public static int nextInt(int min, int max) {
+        return min + generators().random.nextInt(max - min);
+    }
+
+    /**
+     * Returns a string of random digits.
+     *
+     * @param count The number of digits.
+     * @return The digits.
+     */
+    public static String digits(int count) {
+        Random random = generators().random;
+        char[] digits = new char[count];
+        for (int i = 0; i < count; i++) {
+            digits[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Returns a string of random upper- and lower-case letters.
+     *
+     * @param count The number of letters.
+     * @return The letters.
+     */
+    public static String alphabetic(int count) {
+        Random random = generators().random;
+        char[] letters = new char[count];
+        for (int i = 0; i < count; i++) {
+            int letter = random.nextInt(52);
+            letters[i] = (char) (letter < 26 ? 'A' + letter : 'a' + letter - 26);
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Formats an instant in the local time zone as "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'".
+     *
+     * @param epochMillis The instant.
+     * @return The formatted date-time.
+     */
+    public static String formatTimestamp(long epochMillis) {
+        return TIMESTAMP_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    private static String generateDirectly(RandomDataTypeNames type) {
+        Faker faker = generators().faker;
+        switch (type) {
+            case FIRSTNAME:
+                return faker.name().firstName();
+            case LASTNAME:
+                return faker.name().lastName();
+            case FULLNAME:
+                return faker.name().fullName();
+            case COUNTRY:
+                return faker.address().country();
+            case CITYNAME:
+                return faker.address().cityName();
+            case EMAIL:
+                return faker.name().fullName().toLowerCase() + "@" + faker.internet().domainName() + ".com";
+            case IP_ADDRESS:
+                return faker.internet().ipV4Address();
+            default:
+                return "Data type name not available";
+        }
+    }
+
+    private static long nextLong(long bound) {
+        return (long) (generators().random.nextDouble() * bound);
+    }
+
+    /**
+     * Returns the generators of the current thread, creating them for a new thread or a new run.
+     */
+    private static ThreadGenerators generators() {
+        ThreadGenerators generators = threadGenerators.get();
+        if (generators == null || generators.generation != generation) {
+            Long currentSeed = seed;
+            Random random = currentSeed == null
+                    ? new Random()
+                    : new Random(currentSeed + seededThreads.getAndIncrement() * 0x9E3779B97F4A7C15L);
+            generators = new ThreadGenerators(random, generation);
+            threadGenerators.set(generators);
+        }
+        return generators;
+    }
+
+    private static void startPools(int poolSize) {
+        Map<RandomDataTypeNames, BlockingQueue<String>> newPools = new EnumMap<>(RandomDataTypeNames.class);
+        for (RandomDataTypeNames type : RandomDataTypeNames.values()) {
+            newPools.put(type, new ArrayBlockingQueue<>(poolSize));
+        }
+        refillThread = new Thread(() -> refillPools(newPools), "random-data-refill");
+        refillThread.setDaemon(true);
+        pools = newPools;
+        refillThread.start();
+    }
+
+    private static void stopPools() {
+        pools = null;
+        if (refillThread != null) {
+            refillThread.interrupt();
+            refillThread = null;
+        }
+    }
+
+    /**
+     * Tops up every pool, then sleeps until a pool runs empty or the refill interval has passed.
+     */
+    private static void refillPools(Map<RandomDataTypeNames, BlockingQueue<String>> poolsToRefill) {
+        while (!Thread.currentThread().isInterrupted()) {
+            for (Map.Entry<RandomDataTypeNames, BlockingQueue<String>> pool : poolsToRefill.entrySet()) {
+                while (pool.getValue().remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                    pool.getValue().offer(generateDirectly(pool.getKey()));
+                }
+            }
+            LockSupport.parkNanos(REFILL_INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * The generators of one thread.
+     */
+    private static class ThreadGenerators {
+        final Random random;
+        final Faker faker;
+        final int generation;
+
+        ThreadGenerators(Random random, int generation) {
+            this.random = random;
+            this.faker = new Faker(random);
+            this.generation = generation;
+        }
+    }
+}
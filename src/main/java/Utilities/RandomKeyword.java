@@ -0,0 +1,68 @@
+package Utilities;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The $Random keywords that can be used as values in request body templates, e.g. "$RandomEmail".
+ * Typed keywords generate JSON numbers or booleans and may be written without quotes in a template.
+ */
+public enum RandomKeyword {
+    PASTDATE(RandomDataGenerator::getRandomPastDate, false),
+    FUTUREDATE(RandomDataGenerator::getRandomFutureDate, false),
+    FULLNAME(() -> RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.FULLNAME), false),
+    FIRSTNAME(() -> RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.FIRSTNAME), false),
+    LASTNAME(() -> RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.LASTNAME), false),
+    EMAIL(() -> RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.EMAIL), false),
+    COMPUTERIP(() -> RandomDataGenerator.getRandomDataFor(RandomDataTypeNames.IP_ADDRESS), false),
+    BOOLEANVALUE(() -> String.valueOf(RandomDataGenerator.getRandomBooleanValue()), true),
+    NUMBER(() -> String.valueOf(RandomDataGenerator.getRandomNumber(0, 1_000_000)), true);
+
+    public static final String PREFIX = "$Random";
+
+    private static final Map<String, RandomKeyword> keywordsByName = new HashMap<>();
+
+    static {
+        for (RandomKeyword keyword : values()) {
+            keywordsByName.put(keyword.name(), keyword);
+        }
+    }
+
+    private final Supplier<String> generator;
+    private final boolean typed;
+
+    RandomKeyword(Supplier<String> generator, boolean typed) {
+        this.generator = generator;
+        this.typed = typed;
+    }
+
+    /**
+     * Generates a new random value.
+     *
+     * @return The value as text; for typed keywords the JSON literal, e.g. "true" or "42".
+     */
+    public String generate() {
+        return generator.get();
+    }
+
+    /**
+     * @return Whether the value is a JSON number or boolean rather than a string.
+     */
+    public boolean isTyped() {
+        return typed;
+    }
+
+    /**
+     * Looks up the keyword of a placeholder such as "$RandomEmail". The name after the prefix is case-insensitive.
+     *
+     * @param placeholder The placeholder.
+     * @return The keyword, or null if the placeholder is not a known keyword.
+     */
+    public static RandomKeyword fromPlaceholder(String placeholder) {
+        if (placeholder == null || !placeholder.startsWith(PREFIX)) {
+            return null;
+        }
+        return keywordsByName.get(placeholder.substring(PREFIX.length()).toUpperCase());
+    }
+}
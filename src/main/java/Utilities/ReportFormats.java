@@ -0,0 +1,165 @@
+package Utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Registry of the available report formats.
+ * The built-in formats are "xlsx", "csv", "jsonl" and "columnar"; further formats are discovered with
+ * {@link ServiceLoader} from {@link ReportWriterFactory} implementations on the classpath.
+ */
+public class ReportFormats {
+
+    private static final Map<String, ReportWriterFactory> factories = new LinkedHashMap<>();
+
+    static {
+        register(new BuiltInFormat("xlsx", "xlsx") {
+            @Override
+            ReportWriter create(Path file, String sheetName) {
+                return new ExcelReportWriter(file, sheetName, ExcelReportWriter.DEFAULT_ROW_WINDOW);
+            }
+        });
+        register(new BuiltInFormat("csv", "csv") {
+            @Override
+            ReportWriter create(Path file, String sheetName) throws IOException {
+                return new CsvReportWriter(file);
+            }
+        });
+        register(new BuiltInFormat("jsonl", "jsonl") {
+            @Override
+            ReportWriter create(Path file, String sheetName) throws IOException {
+                return new JsonLinesReportWriter(file);
+            }
+        });
+        register(new BuiltInFormat("columnar", "ddrc") {
+            @Override
+            ReportWriter create(Path file, String sheetName) throws IOException {
+                return new ColumnarReportWriter(file);
+            }
+        });
+        for (ReportWriterFactory factory : ServiceLoader.load(ReportWriterFactory.class)) {
+            register(factory);
+        }
+    }
+
+    /**
+     * Registers a report format, replacing any format with the same name.
+     *
+     * @param factory The factory creating writers for the format.
+     */
+    public static synchronized void register(ReportWriterFactory factory) {
+        factories.put(factory.getFormatName().toLowerCase(), factory);
+    }
+
+    /**
+     * Creates a writer for each of the given formats. When more than one format is given,
+     * the returned writer writes every row to all of them.
+     *
+     * @param formats    A comma-separated list of format names, e.g. "csv,xlsx".
+     * @param directory  The directory the report files are created in.
+     * @param reportName The name of the report files without extension.
+     * @param sheetName  The name of the sheet or section holding the rows.
+     * @return The report writer.
+     * @throws IOException              If a report file cannot be created.
+     * @throws IllegalArgumentException If a format is unknown.
+     */
+    public static synchronized ReportWriter create(String formats, Path directory, String reportName, String sheetName) throws IOException {
+        List<ReportWriter> writers = new ArrayList<>();
+        try {
+            for (String format : formats.split(",")) {
+                if (format.trim().isEmpty()) {
+                    continue;
+                }
+                ReportWriterFactory factory = factories.get(format.trim().toLowerCase());
+                if (factory == null) {
+                    throw new IllegalArgumentException("Unknown report format '" + format.trim() + "', available formats: " + factories.keySet());
+                }
+                writers.add(factory.create(directory, reportName, sheetName));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ReportWriter writer : writers) {
+                writer.close();
+            }
+            throw e;
+        }
+        if (writers.isEmpty()) {
+            throw new IllegalArgumentException("No report format given, available formats: " + factories.keySet());
+        }
+        return writers.size() == 1 ? writers.get(0) : new CompositeReportWriter(writers);
+    }
+
+    /**
+     * Base class of the built-in formats, which all create a single file named after the report.
+     */
+    private abstract static class BuiltInFormat implements ReportWriterFactory {
+        private final String formatName;
+        private final String fileExtension;
+
+        BuiltInFormat(String formatName, String fileExtension) {
+            this.formatName = formatName;
+            this.fileExtension = fileExtension;
+        }
+
+        @Override
+        public String getFormatName() {
+            return formatName;
+        }
+
+        @Override
+        public ReportWriter create(Path directory, String reportName, String sheetName) throws IOException {
+            return create(directory.resolve(reportName + "." + fileExtension), sheetName);
+        }
+
+        abstract ReportWriter create(Path file, String sheetName) throws IOException;
+    }
+
+    /**
+     * Writes every row to several report writers.
+     */
+    private static class CompositeReportWriter implements ReportWriter {
+        private final List<ReportWriter> writers;
+
+        CompositeReportWriter(List<ReportWriter> writers) {
+            this.writers = writers;
+        }
+
+        @Override
+        public void writeRow(Map<String, String> row) throws IOException {
+            for (ReportWriter writer : writers) {
+                writer.writeRow(row);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            for (ReportWriter writer : writers) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void writeSummary(String summaryName, List<? extends Map<String, String>> rows) throws IOException {
+            for (ReportWriter writer : writers) {
+                writer.writeSummary(summaryName, rows);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException firstError = null;
+            for (ReportWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                }
+            }
+            if (firstError != null) {
+                throw firstError;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package Utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the reports of several runs or shards into one report, ordered by the RowId of the rows.
+ * The inputs are streamed in a k-way merge: only the current row of each input is held in memory, and a priority
+ * queue picks the input with the lowest RowId next. Pass/fail totals and latency percentiles are recomputed from
+ * the merged rows and written as the "Totals" and "Latency" summaries of the merged report.
+ * <p>
+ * Usage: {@code ReportMerger [--output <directory>] [--formats xlsx,csv] <report file or DataDrivenResults directory>...}
+ */
+public class ReportMerger {
+
+    public static final String TOTALS_SUMMARY = "Totals";
+
+    /**
+     * Finds the report files to merge. Directories are searched for report files; when a report was written in
+     * several formats, only the one that is cheapest to read is used.
+     *
+     * @param paths Report files and directories holding report files.
+     * @return The report files.
+     * @throws IOException If a directory cannot be listed.
+     */
+    public static List<Path> findReportFiles(List<Path> paths) throws IOException {
+        List<Path> reportFiles = new ArrayList<>();
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                reportFiles.add(path);
+                continue;
+            }
+            // Report name without extension to the report file in the preferred format
+            Map<String, Path> reports = new TreeMap<>();
+            try (Stream<Path> files = Files.list(path)) {
+                for (Path file : files.filter(ReportRowReaders::isSupported).collect(Collectors.toList())) {
+                    String name = file.getFileName().toString();
+                    String reportName = name.substring(0, name.lastIndexOf('.'));
+                    Path current = reports.get(reportName);
+                    if (current == null || formatRank(file) < formatRank(current)) {
+                        reports.put(reportName, file);
+                    }
+                }
+            }
+            reportFiles.addAll(reports.values());
+        }
+        return reportFiles;
+    }
+
+    /**
+     * Merges report files into a report writer. Inputs without a RowId column, such as summary files, are skipped.
+     *
+     * @param reportFiles The report files, each ordered by RowId as written by a run.
+     * @param writer      The writer of the merged report. It is not closed.
+     * @return The number of merged rows.
+     * @throws IOException If a report cannot be read or the merged report cannot be written.
+     */
+    public static long merge(List<Path> reportFiles, ReportWriter writer) throws IOException {
+        List<Cursor> cursors = new ArrayList<>();
+        try {
+            Set<String> columnNames = new LinkedHashSet<>();
+            for (Path reportFile : reportFiles) {
+                SheetRowReader reader = ReportRowReaders.open(reportFile);
+                if (!reader.getColumnNames().contains(DataDrivenUtil.ROW_ID_COLUMN)) {
+                    System.err.println("Skipping " + reportFile + ": it has no " + DataDrivenUtil.ROW_ID_COLUMN + " column");
+                    reader.close();
+                    continue;
+                }
+                columnNames.addAll(reader.getColumnNames());
+                cursors.add(new Cursor(reportFile, reader, cursors.size()));
+            }
+
+            String methodColumn = findColumn(columnNames, "method");
+            String basePathColumn = findColumn(columnNames, "basepath");
+            EndpointLatencies latencies = new EndpointLatencies();
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, cursors.size()),
+                    Comparator.comparingLong((Cursor cursor) -> cursor.rowId).thenComparingInt(cursor -> cursor.sourceIndex));
+            for (Cursor cursor : cursors) {
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+
+            long mergedRows = 0;
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                LinkedHashMap<String, String> row = new LinkedHashMap<>();
+                for (String columnName : columnNames) {
+                    String value = cursor.row.get(columnName);
+                    row.put(columnName, value == null ? "" : value);
+                }
+                writer.writeRow(row);
+                mergedRows++;
+                cursor.count(row);
+
+                HttpMethod method = methodColumn == null ? null : HttpMethod.fromName(row.get(methodColumn));
+                long latencyMicros = parseLatencyMicros(row.get("ResponseTimeMs"));
+                if (method != null && latencyMicros >= 0) {
+                    latencies.record(method, basePathColumn == null ? "" : row.get(basePathColumn), latencyMicros);
+                }
+
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+
+            writer.writeSummary(TOTALS_SUMMARY, totalsRows(cursors));
+            writer.writeSummary("Latency", latencies.summaryRows());
+            return mergedRows;
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    /**
+     * Merges the given reports into a new report.
+     *
+     * @param args The options and the report files or directories to merge.
+     * @throws IOException If a report cannot be read or the merged report cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path outputDirectory = null;
+        String formats = "xlsx";
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--output") && i + 1 < args.length) {
+                outputDirectory = Paths.get(args[++i]);
+            } else if (args[i].equals("--formats") && i + 1 < args.length) {
+                formats = args[++i];
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: ReportMerger [--output <directory>] [--formats xlsx,csv] <report file or DataDrivenResults directory>...");
+            return;
+        }
+
+        List<Path> reportFiles = findReportFiles(inputs);
+        if (outputDirectory == null) {
+            outputDirectory = ExcelDataDriven.createResultsDirectory();
+        } else {
+            Files.createDirectories(outputDirectory);
+        }
+        String reportName = "merged_report_" + DateFormatter.formatPresentDateTime();
+        long mergedRows;
+        try (ReportWriter writer = ReportFormats.create(formats, outputDirectory, reportName, "merged_report")) {
+            mergedRows = merge(reportFiles, writer);
+        }
+        System.out.println("Merged " + mergedRows + " rows from " + reportFiles.size() + " reports into " + outputDirectory.resolve(reportName));
+    }
+
+    private static List<LinkedHashMap<String, String>> totalsRows(List<Cursor> cursors) {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        long totalRows = 0;
+        long passed = 0;
+        long failed = 0;
+        for (Cursor cursor : cursors) {
+            rows.add(totalsRow(cursor.file.toString(), cursor.rows, cursor.passed, cursor.failed));
+            totalRows += cursor.rows;
+            passed += cursor.passed;
+            failed += cursor.failed;
+        }
+        rows.add(totalsRow("All reports", totalRows, passed, failed));
+        return rows;
+    }
+
+    private static LinkedHashMap<String, String> totalsRow(String source, long rows, long passed, long failed) {
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("Report", source);
+        row.put("Rows", String.valueOf(rows));
+        row.put("Passed", String.valueOf(passed));
+        row.put("Failed", String.valueOf(failed));
+        row.put("PassRate", rows == 0 ? "" : String.format("%.2f%%", passed * 100.0 / rows));
+        return row;
+    }
+
+    /**
+     * Parses a ResponseTimeMs value, which may have been written with a decimal comma.
+     *
+     * @return The latency in microseconds, or -1 if the row has none.
+     */
+    private static long parseLatencyMicros(String millis) {
+        if (millis == null || millis.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.round(Double.parseDouble(millis.trim().replace(',', '.')) * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int formatRank(Path file) {
+        return ReportRowReaders.getExtensions().indexOf(ReportRowReaders.extensionOf(file));
+    }
+
+    private static String findColumn(Collection<String> columnNames, String lowerCaseName) {
+        for (String columnName : columnNames) {
+            if (columnName.toLowerCase().equals(lowerCaseName)) {
+                return columnName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The current row of one input, with the totals of the rows merged from it so far.
+     */
+    private static class Cursor {
+        final Path file;
+        final SheetRowReader reader;
+        final int sourceIndex;
+        LinkedHashMap<String, String> row;
+        long rowId;
+        long rows;
+        long passed;
+        long failed;
+        private boolean warnedAboutOrder;
+
+        Cursor(Path file, SheetRowReader reader, int sourceIndex) {
+            this.file = file;
+            this.reader = reader;
+            this.sourceIndex = sourceIndex;
+        }
+
+        /**
+         * Moves to the next row of the input.
+         *
+         * @return Whether there is a next row.
+         */
+        boolean advance() {
+            if (!reader.hasNext()) {
+                row = null;
+                return false;
+            }
+            long previousRowId = row == null ? Long.MIN_VALUE : rowId;
+            row = reader.next();
+            try {
+                rowId = Long.parseLong(row.getOrDefault(DataDrivenUtil.ROW_ID_COLUMN, "").trim());
+            } catch (NumberFormatException e) {
+                rowId = Long.MAX_VALUE;
+            }
+            if (rowId < previousRowId && !warnedAboutOrder) {
+                warnedAboutOrder = true;
+                System.err.println(file + " is not ordered by " + DataDrivenUtil.ROW_ID_COLUMN + "; the merged report is only ordered where its inputs are");
+            }
+            return true;
+        }
+
+        void count(Map<String, String> mergedRow) {
+            rows++;
+            String passOrFail = mergedRow.get("PassOrFail");
+            if ("PASS".equals(passOrFail)) {
+                passed++;
+            } else if ("FAIL".equals(passOrFail) || CircuitBreaker.CIRCUIT_OPEN.equals(passOrFail)) {
+                failed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package Utilities;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Opens report files for reading one row at a time, so reports can be processed without loading them into memory.
+ * The row-oriented formats are supported: xlsx (the first sheet), csv and jsonl.
+ */
+public class ReportRowReaders {
+
+    private static final List<String> EXTENSIONS = Arrays.asList("jsonl", "csv", "xlsx");
+
+    /**
+     * @param file A file.
+     * @return Whether the file has the extension of a readable report format.
+     */
+    public static boolean isSupported(Path file) {
+        return EXTENSIONS.contains(extensionOf(file));
+    }
+
+    /**
+     * Returns the supported extensions, cheapest to read first.
+     *
+     * @return The extensions without the dot.
+     */
+    public static List<String> getExtensions() {
+        return EXTENSIONS;
+    }
+
+    /**
+     * Opens a report file, choosing the format by its extension.
+     *
+     * @param file The report file.
+     * @return A reader returning the report rows.
+     * @throws IOException              If the file cannot be opened.
+     * @throws IllegalArgumentException If the format is not supported.
+     */
+    public static SheetRowReader open(Path file) throws IOException {
+        switch (extensionOf(file)) {
+            case "xlsx":
+                return StreamingSheetReader.open(file.toFile());
+            case "csv":
+                return new CsvRowReader(file);
+            case "jsonl":
+                return new JsonLinesRowReader(file);
+            default:
+                throw new IllegalArgumentException("Unsupported report format: " + file);
+        }
+    }
+
+    static String extensionOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+    }
+
+    /**
+     * Base class of the readers that fetch the next row on demand.
+     */
+    private abstract static class LookaheadReader implements SheetRowReader {
+        private LinkedHashMap<String, String> nextRow;
+        private long rowNumber = 1;
+        private boolean finished;
+
+        /**
+         * @return The next row, or null at the end of the file.
+         */
+        abstract LinkedHashMap<String, String> readRow() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !finished) {
+                try {
+                    nextRow = readRow();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                finished = nextRow == null;
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public LinkedHashMap<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LinkedHashMap<String, String> row = nextRow;
+            nextRow = null;
+            rowNumber++;
+            return row;
+        }
+
+        /**
+         * @return The number of the row counting the header as row 1; the formats have no blank rows.
+         */
+        @Override
+        public long getRowNumber() {
+            return rowNumber;
+        }
+    }
+
+    /**
+     * Reads RFC 4180 CSV as written by {@link CsvReportWriter}, with the column names in the first line.
+     */
+    private static class CsvRowReader extends LookaheadReader {
+        private final BufferedReader reader;
+        private final List<String> columnNames;
+
+        CsvRowReader(Path file) throws IOException {
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            List<String> header = readRecord();
+            this.columnNames = header == null ? Collections.emptyList() : header;
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        @Override
+        LinkedHashMap<String, String> readRow() throws IOException {
+            List<String> values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < columnNames.size(); i++) {
+                row.put(columnNames.get(i), i < values.size() ? values.get(i) : "");
+            }
+            return row;
+        }
+
+        /**
+         * Reads the fields of the next record, which spans several lines when a quoted field contains line breaks.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads JSON Lines as written by {@link JsonLinesReportWriter}, one object of string fields per line.
+     * Rows may have different fields, so the column names are collected by a first pass over the file that only
+     * reads the field names, in the order they first appear. Every row has all columns, empty where it has no field.
+     */
+    private static class JsonLinesRowReader extends LookaheadReader {
+        private static final JsonFactory jsonFactory = new JsonFactory();
+
+        private final JsonParser parser;
+        private final List<String> columnNames;
+
+        JsonLinesRowReader(Path file) throws IOException {
+            Set<String> names = new LinkedHashSet<>();
+            try (JsonParser namesParser = jsonFactory.createParser(Files.newInputStream(file))) {
+                for (JsonToken token = namesParser.nextToken(); token != null; token = namesParser.nextToken()) {
+                    if (token == JsonToken.FIELD_NAME) {
+                        names.add(namesParser.getCurrentName());
+                        namesParser.nextToken();
+                        namesParser.skipChildren();
+                    }
+                }
+            }
+            this.columnNames = new ArrayList<>(names);
+            this.parser = jsonFactory.createParser(Files.newInputStream(file));
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        @Override
+        LinkedHashMap<String, String> readRow() throws IOException {
+            LinkedHashMap<String, String> fields = parseRow();
+            if (fields == null) {
+                return null;
+            }
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            for (String columnName : columnNames) {
+                String value = fields.get(columnName);
+                row.put(columnName, value == null ? "" : value);
+            }
+            return row;
+        }
+
+        private LinkedHashMap<String, String> parseRow() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object per line but found " + token + " at " + parser.getCurrentLocation());
+            }
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                    row.put(name, "");
+                } else {
+                    row.put(name, value == JsonToken.VALUE_NULL ? "" : parser.getText());
+                }
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package Utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the result rows of a run to a report file in one specific format.
+ * Implementations are created through {@link ReportWriterFactory} and receive the rows in sheet order.
+ */
+public interface ReportWriter extends Closeable {
+
+    /**
+     * Writes a result row.
+     *
+     * @param row The row to write, mapping column names to values in column order.
+     * @throws IOException If the row cannot be written.
+     */
+    void writeRow(Map<String, String> row) throws IOException;
+
+    /**
+     * Pushes buffered rows to the underlying file so they survive an aborted run where the format allows it.
+     *
+     * @throws IOException If the rows cannot be written.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Writes a summary of the run, such as latency percentiles, in addition to the result rows.
+     * It is called once per summary after the last result row. Formats without sections write it to a separate
+     * file named by {@link #summaryFile}; formats that do not support summaries ignore it.
+     *
+     * @param summaryName The name of the summary, e.g. "Latency".
+     * @param rows        The summary rows.
+     * @throws IOException If the summary cannot be written.
+     */
+    default void writeSummary(String summaryName, List<? extends Map<String, String>> rows) throws IOException {
+    }
+
+    /**
+     * Returns the file a summary of the given report file is written to, e.g. "report_Latency.csv" for "report.csv".
+     *
+     * @param reportFile  The report file.
+     * @param summaryName The name of the summary.
+     * @return The summary file next to the report file.
+     */
+    static Path summaryFile(Path reportFile, String summaryName) {
+        String fileName = reportFile.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension < 0 ? fileName : fileName.substring(0, extension);
+        return reportFile.resolveSibling(baseName + "_" + summaryName + (extension < 0 ? "" : fileName.substring(extension)));
+    }
+}
@@ -0,0 +1,30 @@
+package Utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Service interface for report formats. Besides the built-in formats registered in {@link ReportFormats},
+ * additional formats can be plugged in by listing an implementation in
+ * META-INF/services/Utilities.ReportWriterFactory.
+ */
+public interface ReportWriterFactory {
+
+    /**
+     * Returns the name used to select this format in the "reportFormats" setting.
+     *
+     * @return The format name, e.g. "csv".
+     */
+    String getFormatName();
+
+    /**
+     * Creates a writer for a new report.
+     *
+     * @param directory  The directory the report file is created in.
+     * @param reportName The name of the report file without extension.
+     * @param sheetName  The name of the sheet or section holding the rows, for formats that have one.
+     * @return The report writer.
+     * @throws IOException If the report file cannot be created.
+     */
+    ReportWriter create(Path directory, String reportName, String sheetName) throws IOException;
+}
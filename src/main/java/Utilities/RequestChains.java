@@ -0,0 +1,186 @@
+package Utilities;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Groups the rows of a sheet that pass values to each other into chains.
+ * A row that references "${var}" depends on the last earlier row with an "Extract:var" column; every such
+ * dependency joins the two rows into one chain with a union-find over the sheet, so a row that uses the values
+ * of several rows is in the same chain as all of them. The rows of a chain run one after another in sheet order
+ * and share their extracted variables, while different chains and the rows outside any chain run in parallel.
+ */
+public class RequestChains {
+
+    public static final RequestChains NONE = new RequestChains(Collections.emptyMap(), Collections.emptyMap());
+
+    static final Pattern VARIABLE = Pattern.compile("\\$\\{([^}]+)}");
+
+    // Chain id (the first row of the chain) of every row that belongs to a chain of at least two rows
+    private final Map<Long, Long> chainOfRow;
+    private final Map<Long, Long> lastRowOfChain;
+    // Only used by the thread that enqueues the rows
+    private final Map<Long, ChainState> runningChains = new HashMap<>();
+
+    private RequestChains(Map<Long, Long> chainOfRow, Map<Long, Long> lastRowOfChain) {
+        this.chainOfRow = chainOfRow;
+        this.lastRowOfChain = lastRowOfChain;
+    }
+
+    /**
+     * Builds the chains of a sheet.
+     *
+     * @param planner The planner of the sheet, which knows its Extract columns and the cells that may hold references.
+     * @param rows    The rows of the sheet.
+     * @return The chains; rows that neither pass nor receive values are not part of any chain.
+     */
+    public static RequestChains build(RequestPlanner planner, Iterator<LinkedHashMap<String, String>> rows) {
+        Map<Long, Long> parent = new HashMap<>();
+        Map<String, Long> lastExtractingRow = new HashMap<>();
+        long rowIndex = 0;
+        while (rows.hasNext()) {
+            LinkedHashMap<String, String> row = rows.next();
+            for (String variable : planner.referencedVariables(row)) {
+                Long producer = lastExtractingRow.get(variable);
+                if (producer != null) {
+                    union(parent, producer, rowIndex);
+                }
+            }
+            for (String variable : planner.extractedVariables(row)) {
+                lastExtractingRow.put(variable, rowIndex);
+            }
+            rowIndex++;
+        }
+
+        Map<Long, Long> chainOfRow = new HashMap<>();
+        Map<Long, Long> lastRowOfChain = new HashMap<>();
+        for (Long row : parent.keySet()) {
+            Long chain = find(parent, row);
+            chainOfRow.put(row, chain);
+            lastRowOfChain.merge(chain, row, Math::max);
+        }
+        return new RequestChains(chainOfRow, lastRowOfChain);
+    }
+
+    /**
+     * @param rowIndex The zero-based position of the row in the sheet.
+     * @return Whether the row is part of a chain and must be run with {@link #enqueue}.
+     */
+    public boolean isChained(long rowIndex) {
+        return chainOfRow.containsKey(rowIndex);
+    }
+
+    /**
+     * @return The number of chains.
+     */
+    public int getChainCount() {
+        return lastRowOfChain.size();
+    }
+
+    /**
+     * Runs a step of a chain once the previous row of its chain has completed. Rows must be enqueued in sheet
+     * order from a single thread.
+     *
+     * @param rowIndex The zero-based position of the row in the sheet.
+     * @param executor The executor the step is started on.
+     * @param step     Starts the request of the row with the variables of its chain, and completes when it is done.
+     * @return A future completed when the step is done.
+     */
+    public CompletableFuture<Void> enqueue(long rowIndex, Executor executor, Function<Map<String, String>, CompletableFuture<?>> step) {
+        Long chain = chainOfRow.get(rowIndex);
+        ChainState state = runningChains.computeIfAbsent(chain, id -> new ChainState());
+        // A failed step must not stop the rest of the chain; its rows fail on their missing variables instead
+        CompletableFuture<Void> done = state.tail
+                .thenComposeAsync(ignored -> step.apply(state.variables), executor)
+                .handle((result, error) -> null);
+        if (lastRowOfChain.get(chain) == rowIndex) {
+            runningChains.remove(chain);
+        } else {
+            state.tail = done;
+        }
+        return done;
+    }
+
+    /**
+     * Finds the variables referenced as "${var}" in a text.
+     *
+     * @param text      The text.
+     * @param variables The set the variable names are added to.
+     */
+    public static void collectReferences(String text, Set<String> variables) {
+        if (text == null || !text.contains("${")) {
+            return;
+        }
+        Matcher matcher = VARIABLE.matcher(text);
+        while (matcher.find()) {
+            variables.add(matcher.group(1).trim());
+        }
+    }
+
+    /**
+     * Replaces the "${var}" references in a text with the values of the variables.
+     *
+     * @param text       The text.
+     * @param variables  The values of the variables.
+     * @param jsonEscape Whether to escape the values for use inside a JSON string.
+     * @return The text with the references replaced.
+     * @throws IllegalArgumentException If a referenced variable has no value.
+     */
+    public static String substitute(String text, Map<String, String> variables, boolean jsonEscape) {
+        if (text == null || !text.contains("${")) {
+            return text;
+        }
+        Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder result = new StringBuilder(text.length() + 32);
+        int end = 0;
+        while (matcher.find()) {
+            String variable = matcher.group(1).trim();
+            String value = variables.get(variable);
+            if (value == null) {
+                throw new IllegalArgumentException("Variable ${" + variable + "} has no value; the row that extracts it failed or did not find it");
+            }
+            result.append(text, end, matcher.start());
+            result.append(jsonEscape ? new String(JsonStringEncoder.getInstance().quoteAsString(value)) : value);
+            end = matcher.end();
+        }
+        return result.append(text, end, text.length()).toString();
+    }
+
+    private static Long find(Map<Long, Long> parent, Long row) {
+        Long root = row;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        // Path compression
+        while (!row.equals(root)) {
+            Long next = parent.put(row, root);
+            row = next;
+        }
+        return root;
+    }
+
+    private static void union(Map<Long, Long> parent, long first, long second) {
+        parent.putIfAbsent(first, first);
+        parent.putIfAbsent(second, second);
+        Long firstRoot = find(parent, first);
+        Long secondRoot = find(parent, second);
+        if (!firstRoot.equals(secondRoot)) {
+            // The earlier row becomes the root, so the id of a chain is its first row
+            parent.put(Math.max(firstRoot, secondRoot), Math.min(firstRoot, secondRoot));
+        }
+    }
+
+    /**
+     * The variables of a running chain and the completion of its last enqueued row.
+     */
+    private static class ChainState {
+        final Map<String, String> variables = new HashMap<>();
+        CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,108 @@
+package Utilities;
+
+import io.restassured.response.Response;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which request/response exchanges are logged, according to the {@link LogMode} of the run.
+ * Settings used: "logMode" (off, failure, sampled or all; default all), "logSampleRate" (log 1 in N exchanges
+ * in sampled mode; default 100) and "logFile" (write the log to this file instead of standard output).
+ * Logged exchanges are written by an {@link AsyncLogWriter}.
+ */
+public class RequestLogger {
+
+    private static volatile LogMode logMode = LogMode.ALL;
+    private static volatile long sampleRate = 100;
+    private static volatile AsyncLogWriter logWriter;
+    // The "logFile" setting the current writer was created for, null for standard output
+    private static String logWriterFile;
+    private static final AtomicLong exchangeCount = new AtomicLong();
+
+    /**
+     * Configures the logging of the run. The log writer of the previous run is reused when it writes to the same
+     * destination; otherwise it is drained and closed before the new one takes over.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     */
+    public static synchronized void configure(RunConfig runConfig) {
+        String mode = runConfig.getString("logMode", LogMode.ALL.name());
+        try {
+            logMode = LogMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Setting 'logMode' must be one of off, failure, sampled or all but was: " + mode);
+        }
+        sampleRate = Math.max(1, runConfig.getLong("logSampleRate", 100));
+
+        String logFile = runConfig.getString("logFile", null);
+        if (logWriter != null && Objects.equals(logFile, logWriterFile)) {
+            return;
+        }
+        PrintStream output = System.out;
+        if (logFile != null) {
+            try {
+                output = new PrintStream(new FileOutputStream(logFile, true), false, StandardCharsets.UTF_8);
+            } catch (FileNotFoundException e) {
+                System.err.println("Unable to open log file " + logFile + ", logging to standard output: " + e.getMessage());
+            }
+        }
+        AsyncLogWriter previousWriter = logWriter;
+        logWriter = new AsyncLogWriter(output, 10000);
+        logWriterFile = output == System.out ? null : logFile;
+        if (previousWriter != null) {
+            previousWriter.close();
+        }
+    }
+
+    /**
+     * Starts the log of an exchange.
+     *
+     * @return The buffer to log the exchange into, or null if the exchange is not logged.
+     */
+    public static ExchangeLog start() {
+        switch (logMode) {
+            case OFF:
+                return null;
+            case SAMPLED:
+                return exchangeCount.getAndIncrement() % sampleRate == 0 ? new ExchangeLog(true) : null;
+            case FAILURE:
+                return new ExchangeLog(false);
+            default:
+                return new ExchangeLog(true);
+        }
+    }
+
+    /**
+     * Completes the log of an exchange, writing it if the mode asks for it.
+     *
+     * @param exchangeLog The buffer returned by {@link #start()}, can be null.
+     * @param failed      Whether the exchange failed.
+     */
+    public static void complete(ExchangeLog exchangeLog, boolean failed) {
+        if (exchangeLog != null && (failed || exchangeLog.isAlwaysWrite())) {
+            getLogWriter().write(exchangeLog.toString());
+        }
+    }
+
+    /**
+     * Completes the log of an exchange, treating 4xx and 5xx responses as failures.
+     *
+     * @param exchangeLog The buffer returned by {@link #start()}, can be null.
+     * @param response    The response of the exchange.
+     */
+    public static void complete(ExchangeLog exchangeLog, Response response) {
+        complete(exchangeLog, response.getStatusCode() >= 400);
+    }
+
+    private static synchronized AsyncLogWriter getLogWriter() {
+        if (logWriter == null) {
+            logWriter = new AsyncLogWriter(System.out, 10000);
+        }
+        return logWriter;
+    }
+}
@@ -0,0 +1,233 @@
+package Utilities;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-parsed description of the request of one sheet row, created by {@link RequestPlanner}.
+ * The only work left when the plan is executed is rendering the request body from its pre-compiled
+ * {@link PayloadTemplate}, because random values must be generated anew for every request.
+ * A plan created by {@link #withVariables} is the one exception: it shares the mutable variables of its chain,
+ * which the values extracted from its response are written to.
+ */
+public class RequestPlan {
+
+    private final long rowIndex;
+    private final HttpMethod method;
+    private final String baseUrl;
+    private final String basePath;
+    private final String endpointPath;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final Map<String, String> headers;
+    private final String bodyTemplate;
+    private final PayloadTemplate payloadTemplate;
+    private final String expectedStatusCode;
+    private final String responseSchema;
+    private final List<ResponseAssertion> assertions;
+    private final Map<String, JsonPathExpression> extractions;
+    private final boolean usesVariables;
+    private final Map<String, String> chainVariables;
+    private final Map<String, String> requestData;
+
+    RequestPlan(long rowIndex, HttpMethod method, String baseUrl, String basePath, Map<String, String> pathParams,
+                Map<String, String> queryParams, Map<String, String> headers, String bodyTemplate,
+                PayloadTemplate payloadTemplate, String expectedStatusCode, String responseSchema,
+                List<ResponseAssertion> assertions, Map<String, JsonPathExpression> extractions, boolean usesVariables,
+                LinkedHashMap<String, String> requestData) {
+        this(rowIndex, method, baseUrl, basePath, basePath, pathParams, queryParams, headers, bodyTemplate, payloadTemplate,
+                expectedStatusCode, responseSchema, assertions, extractions, usesVariables, null,
+                Collections.unmodifiableMap(new LinkedHashMap<>(requestData)));
+    }
+
+    private RequestPlan(long rowIndex, HttpMethod method, String baseUrl, String basePath, String endpointPath, Map<String, String> pathParams,
+                        Map<String, String> queryParams, Map<String, String> headers, String bodyTemplate,
+                        PayloadTemplate payloadTemplate, String expectedStatusCode, String responseSchema,
+                        List<ResponseAssertion> assertions, Map<String, JsonPathExpression> extractions, boolean usesVariables,
+                        Map<String, String> chainVariables, Map<String, String> requestData) {
+        this.rowIndex = rowIndex;
+        this.method = method;
+        this.baseUrl = baseUrl;
+        this.basePath = basePath;
+        this.endpointPath = endpointPath;
+        this.pathParams = Collections.unmodifiableMap(pathParams);
+        this.queryParams = Collections.unmodifiableMap(queryParams);
+        this.headers = Collections.unmodifiableMap(headers);
+        this.bodyTemplate = bodyTemplate;
+        this.payloadTemplate = payloadTemplate;
+        this.expectedStatusCode = expectedStatusCode;
+        this.responseSchema = responseSchema;
+        this.assertions = Collections.unmodifiableList(assertions);
+        this.extractions = Collections.unmodifiableMap(extractions);
+        this.usesVariables = usesVariables;
+        this.chainVariables = chainVariables;
+        this.requestData = requestData;
+    }
+
+    /**
+     * @return The zero-based position of the row in the sheet.
+     */
+    public long getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * @return The one-based number of the row in the sheet, which differs from its position when the sheet has
+     * blank rows.
+     */
+    public long getRowNumber() {
+        return RequestPlanner.rowNumber(rowIndex, requestData);
+    }
+
+    /**
+     * @return The HTTP method of the request.
+     */
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The base URL of the API.
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return The base path of the API endpoint.
+     */
+    public String getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * @return The base path as written in the sheet, with its "${var}" references; the same for every request of
+     * the endpoint, so it is used to group latencies.
+     */
+    public String getEndpointPath() {
+        return endpointPath;
+    }
+
+    /**
+     * @return The path parameters, empty if the row has none.
+     */
+    public Map<String, String> getPathParams() {
+        return pathParams;
+    }
+
+    /**
+     * @return The query parameters, empty if the row has none.
+     */
+    public Map<String, String> getQueryParams() {
+        return queryParams;
+    }
+
+    /**
+     * @return The request headers, empty if the row has none.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The request body cell with its $Random placeholders, or null if the sheet has no RequestBody column.
+     */
+    public String getBodyTemplate() {
+        return bodyTemplate;
+    }
+
+    /**
+     * @return The expected HTTP status code.
+     */
+    public String getExpectedStatusCode() {
+        return expectedStatusCode;
+    }
+
+    /**
+     * @return The schema file the response body must match, relative to src/test/resources, or an empty string
+     * if the row has none.
+     */
+    public String getResponseSchema() {
+        return responseSchema;
+    }
+
+    /**
+     * @return The assertions on the response body from the "Assert:" columns, empty if the row has none.
+     */
+    public List<ResponseAssertion> getAssertions() {
+        return assertions;
+    }
+
+    /**
+     * @return The variables to extract from the response body, with the path of each value; empty if the row has none.
+     */
+    public Map<String, JsonPathExpression> getExtractions() {
+        return extractions;
+    }
+
+    /**
+     * @return Whether the row references "${var}" variables, so it can only be executed through {@link #withVariables}.
+     */
+    public boolean usesVariables() {
+        return usesVariables;
+    }
+
+    /**
+     * @return The variables of the chain of the row, which its extractions are stored in, or null if the plan was
+     * not created by {@link #withVariables}.
+     */
+    public Map<String, String> getChainVariables() {
+        return chainVariables;
+    }
+
+    /**
+     * Creates the plan of the row as run in a chain, with its "${var}" references replaced by the values of the chain's
+     * variables, which the values it extracts are also stored in.
+     *
+     * @param variables The variables of the chain.
+     * @return The resolved plan.
+     * @throws IllegalArgumentException If a referenced variable has no value, or the resolved body is not valid JSON.
+     */
+    public RequestPlan withVariables(Map<String, String> variables) {
+        PayloadTemplate resolvedTemplate = payloadTemplate;
+        String resolvedBody = bodyTemplate;
+        if (bodyTemplate != null && bodyTemplate.contains("${")) {
+            resolvedBody = RequestChains.substitute(bodyTemplate, variables, true);
+            resolvedTemplate = PayloadTemplate.compile(resolvedBody);
+        }
+        return new RequestPlan(rowIndex, method, baseUrl, RequestChains.substitute(basePath, variables, false), endpointPath,
+                substituteValues(pathParams, variables), substituteValues(queryParams, variables), substituteValues(headers, variables),
+                resolvedBody, resolvedTemplate, expectedStatusCode, responseSchema, assertions, extractions, false, variables, requestData);
+    }
+
+    private static Map<String, String> substituteValues(Map<String, String> values, Map<String, String> variables) {
+        Map<String, String> substituted = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            substituted.put(entry.getKey(), RequestChains.substitute(entry.getValue(), variables, false));
+        }
+        return substituted;
+    }
+
+    /**
+     * Returns a copy of the original row, to be filled in with the response details.
+     *
+     * @return A new map with the cells of the row.
+     */
+    public LinkedHashMap<String, String> copyRequestData() {
+        return new LinkedHashMap<>(requestData);
+    }
+
+    /**
+     * Renders the request body, replacing every $Random placeholder with a freshly generated value.
+     *
+     * @return The request body, or an empty string if the sheet has no RequestBody column.
+     */
+    public String renderRequestBody() {
+        if (payloadTemplate == null) {
+            return "";
+        }
+        return payloadTemplate.render();
+    }
+}
@@ -0,0 +1,334 @@
+package Utilities;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns sheet rows into immutable {@link RequestPlan}s.
+ * The columns holding each part of the request are resolved once from the header row, and every row is
+ * validated while it is planned, so a malformed sheet can be rejected before any request is sent.
+ */
+public class RequestPlanner {
+
+    // A ${var} reference is not a path parameter
+    private static final Pattern PATH_PARAMETER = Pattern.compile("(?<!\\$)\\{([^}/]+)}");
+    private static final int MAX_REPORTED_PROBLEMS = 50;
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+    private static final String EXTRACT_COLUMN_PREFIX = "extract:";
+
+    private final String baseUrl;
+    private final String basePathColumn;
+    private final String pathParametersColumn;
+    private final String queryParametersColumn;
+    private final String headersColumn;
+    private final String methodColumn;
+    private final String requestBodyColumn;
+    private final String statusCodeColumn;
+    private final String responseSchemaColumn;
+    private final List<AssertionColumn> assertionColumns = new ArrayList<>();
+    // Variable name to the "Extract:" column that captures it
+    private final Map<String, String> extractColumns = new LinkedHashMap<>();
+    // Rows often share the same body template, so each distinct template is only compiled once
+    private final Map<String, PayloadTemplate> compiledTemplates = new HashMap<>();
+
+    /**
+     * Creates a planner for a sheet with the given header row.
+     *
+     * @param columnNames The column names of the sheet.
+     * @param baseUrl     The base URL of the environment.
+     */
+    public RequestPlanner(List<String> columnNames, String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.basePathColumn = findColumn(columnNames, "basepath");
+        this.pathParametersColumn = findColumn(columnNames, "pathparameters");
+        this.queryParametersColumn = findColumn(columnNames, "queryparameters");
+        this.headersColumn = findColumn(columnNames, "headers");
+        this.methodColumn = findColumn(columnNames, "method");
+        this.requestBodyColumn = findColumn(columnNames, "requestbody");
+        this.statusCodeColumn = findColumn(columnNames, "statuscode");
+        this.responseSchemaColumn = findColumn(columnNames, "responseschema");
+        for (String columnName : columnNames) {
+            if (columnName.toLowerCase().startsWith(ResponseAssertion.COLUMN_PREFIX)) {
+                assertionColumns.add(new AssertionColumn(columnName));
+            } else if (columnName.toLowerCase().startsWith(EXTRACT_COLUMN_PREFIX)) {
+                extractColumns.put(columnName.substring(EXTRACT_COLUMN_PREFIX.length()).trim(), columnName);
+            }
+        }
+    }
+
+    /**
+     * Plans the request of a row.
+     *
+     * @param rowIndex    The zero-based position of the row in the sheet.
+     * @param requestData The cells of the row.
+     * @return The request plan.
+     * @throws IllegalArgumentException If the row is not a valid request.
+     */
+    public RequestPlan plan(long rowIndex, LinkedHashMap<String, String> requestData) {
+        List<String> problems = new ArrayList<>();
+        RequestPlan plan = plan(rowIndex, requestData, problems);
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Row " + rowNumber(rowIndex, requestData) + ": " + String.join("; ", problems));
+        }
+        return plan;
+    }
+
+    /**
+     * Plans every row of a sheet without keeping the plans, and fails if any row is malformed.
+     *
+     * @param rows The rows of the sheet.
+     * @return The number of valid rows.
+     * @throws IllegalArgumentException Listing the malformed rows, if there are any.
+     */
+    public long validate(SheetRowReader rows) {
+        List<String> rowProblems = new ArrayList<>();
+        long invalidRows = 0;
+        Set<String> extractedVariables = new HashSet<>();
+        long rowIndex = 0;
+        while (rows.hasNext()) {
+            List<String> problems = new ArrayList<>();
+            LinkedHashMap<String, String> requestData = rows.next();
+            plan(rowIndex, requestData, problems);
+            for (String variable : referencedVariables(requestData)) {
+                if (!extractedVariables.contains(variable)) {
+                    problems.add("${" + variable + "} is not extracted by an earlier row");
+                }
+            }
+            extractedVariables.addAll(extractedVariables(requestData));
+            if (!problems.isEmpty()) {
+                invalidRows++;
+                if (rowProblems.size() < MAX_REPORTED_PROBLEMS) {
+                    rowProblems.add("Row " + rows.getRowNumber() + ": " + String.join("; ", problems));
+                }
+            }
+            rowIndex++;
+        }
+        if (invalidRows > 0) {
+            throw new IllegalArgumentException(invalidRows + " of " + rowIndex + " rows are invalid:\n" + String.join("\n", rowProblems));
+        }
+        return rowIndex;
+    }
+
+    /**
+     * Returns the number of a row in the sheet, from its RowId cell.
+     *
+     * @param rowIndex    The zero-based position of the row among the data rows, used when the row has no RowId.
+     * @param requestData The cells of the row.
+     * @return The one-based sheet row number.
+     */
+    static long rowNumber(long rowIndex, Map<String, String> requestData) {
+        String rowId = requestData.get(DataDrivenUtil.ROW_ID_COLUMN);
+        if (rowId != null) {
+            try {
+                return Long.parseLong(rowId);
+            } catch (NumberFormatException e) {
+                // Not a row number, fall back to the position
+            }
+        }
+        return rowIndex + 2;
+    }
+
+    /**
+     * @return Whether the sheet has "Extract:" columns, so its rows may pass values to each other.
+     */
+    public boolean hasExtractColumns() {
+        return !extractColumns.isEmpty();
+    }
+
+    /**
+     * Finds the variables a row references as "${var}" in its base path, parameters, headers or body.
+     *
+     * @param requestData The cells of the row.
+     * @return The names of the referenced variables.
+     */
+    public Set<String> referencedVariables(LinkedHashMap<String, String> requestData) {
+        Set<String> variables = new LinkedHashSet<>();
+        for (String column : new String[]{basePathColumn, pathParametersColumn, queryParametersColumn, headersColumn, requestBodyColumn}) {
+            RequestChains.collectReferences(cell(requestData, column), variables);
+        }
+        return variables;
+    }
+
+    /**
+     * Finds the variables a row extracts from its response, i.e. its non-blank "Extract:" cells.
+     *
+     * @param requestData The cells of the row.
+     * @return The names of the extracted variables.
+     */
+    public Set<String> extractedVariables(LinkedHashMap<String, String> requestData) {
+        Set<String> variables = new LinkedHashSet<>();
+        for (Map.Entry<String, String> extractColumn : extractColumns.entrySet()) {
+            if (!cell(requestData, extractColumn.getValue()).trim().isEmpty()) {
+                variables.add(extractColumn.getKey());
+            }
+        }
+        return variables;
+    }
+
+    private RequestPlan plan(long rowIndex, LinkedHashMap<String, String> requestData, List<String> problems) {
+        String methodName = cell(requestData, methodColumn);
+        HttpMethod method = HttpMethod.fromName(methodName);
+        if (method == null) {
+            problems.add("unsupported HTTP method '" + methodName + "'");
+        }
+
+        String expectedStatusCode = cell(requestData, statusCodeColumn).trim();
+        if (!expectedStatusCode.matches("[1-5][0-9][0-9]")) {
+            problems.add("StatusCode must be a 3-digit HTTP status but was '" + expectedStatusCode + "'");
+        }
+
+        String basePath = cell(requestData, basePathColumn);
+        Map<String, String> pathParams = parseParameters(cell(requestData, pathParametersColumn), "PathParameters", problems);
+        Map<String, String> queryParams = parseParameters(cell(requestData, queryParametersColumn), "QueryParameters", problems);
+        Matcher pathParameter = PATH_PARAMETER.matcher(basePath);
+        while (pathParameter.find()) {
+            if (!pathParams.containsKey(pathParameter.group(1))) {
+                problems.add("no value for path parameter {" + pathParameter.group(1) + "}");
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        try {
+            headers = JsonUtils.parseJsonObject(cell(requestData, headersColumn));
+        } catch (IllegalArgumentException e) {
+            problems.add("Headers: " + e.getMessage());
+        }
+        String bodyTemplate = requestBodyColumn == null ? null : cell(requestData, requestBodyColumn);
+        PayloadTemplate payloadTemplate = null;
+        boolean usesVariables = !referencedVariables(requestData).isEmpty();
+        if (bodyTemplate != null) {
+            try {
+                if (bodyTemplate.contains("${")) {
+                    // The body is compiled once its variables are known, but must already be valid JSON with any values
+                    PayloadTemplate.compile(RequestChains.VARIABLE.matcher(bodyTemplate).replaceAll("0"));
+                } else {
+                    payloadTemplate = compileTemplate(bodyTemplate);
+                }
+            } catch (IllegalArgumentException e) {
+                problems.add("RequestBody: " + e.getMessage());
+            }
+        }
+
+        String responseSchema = cell(requestData, responseSchemaColumn).trim();
+        if (!responseSchema.isEmpty()) {
+            try {
+                ResponseSchemas.get(responseSchema);
+            } catch (IllegalArgumentException e) {
+                problems.add("ResponseSchema: " + e.getMessage());
+            }
+        }
+
+        List<ResponseAssertion> assertions = new ArrayList<>();
+        for (AssertionColumn column : assertionColumns) {
+            try {
+                ResponseAssertion assertion = column.assertionFor(cell(requestData, column.columnName));
+                if (assertion != null) {
+                    assertions.add(assertion);
+                }
+            } catch (IllegalArgumentException e) {
+                problems.add(column.columnName + ": " + e.getMessage());
+            }
+        }
+
+        Map<String, JsonPathExpression> extractions = new LinkedHashMap<>();
+        for (Map.Entry<String, String> extractColumn : extractColumns.entrySet()) {
+            String path = cell(requestData, extractColumn.getValue()).trim();
+            if (!path.isEmpty()) {
+                try {
+                    extractions.put(extractColumn.getKey(), JsonPathExpression.compile(path));
+                } catch (IllegalArgumentException e) {
+                    problems.add(extractColumn.getValue() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return new RequestPlan(rowIndex, method, baseUrl, basePath, pathParams, queryParams, headers, bodyTemplate,
+                payloadTemplate, expectedStatusCode, responseSchema, assertions, extractions, usesVariables, requestData);
+    }
+
+    private PayloadTemplate compileTemplate(String bodyTemplate) {
+        PayloadTemplate payloadTemplate = compiledTemplates.get(bodyTemplate);
+        if (payloadTemplate == null) {
+            payloadTemplate = PayloadTemplate.compile(bodyTemplate);
+            if (compiledTemplates.size() < MAX_CACHED_TEMPLATES) {
+                compiledTemplates.put(bodyTemplate, payloadTemplate);
+            }
+        }
+        return payloadTemplate;
+    }
+
+    /**
+     * Parses a "key1=value1,key2=value2" parameter cell, reporting pairs without a value.
+     */
+    private static Map<String, String> parseParameters(String params, String columnName, List<String> problems) {
+        for (String pair : params.split(",")) {
+            if (!pair.trim().isEmpty() && pair.split("=").length != 2) {
+                problems.add(columnName + " entry '" + pair.trim() + "' is not in the form key=value");
+            }
+        }
+        return helperUtils.loadParameters(params);
+    }
+
+    private static String cell(LinkedHashMap<String, String> requestData, String columnName) {
+        if (columnName == null) {
+            return "";
+        }
+        String value = requestData.get(columnName);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Finds the column whose name matches the given lower-case name, ignoring case.
+     *
+     * @return The column name as written in the sheet, or null if the sheet has no such column.
+     */
+    private static String findColumn(List<String> columnNames, String lowerCaseName) {
+        for (String columnName : columnNames) {
+            if (columnName.toLowerCase().equals(lowerCaseName)) {
+                return columnName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An "Assert:" column, with its JSONPath compiled once from the column name.
+     * The column name may also hold the comparison, e.g. "Assert:$.items.length()&gt;0", which applies to every row
+     * whose cell is blank; a non-blank cell holds the comparison of its own row, e.g. "=123".
+     */
+    private static class AssertionColumn {
+        final String columnName;
+        final JsonPathExpression path;
+        final ResponseAssertion columnAssertion;
+        final String error;
+
+        AssertionColumn(String columnName) {
+            this.columnName = columnName;
+            String[] definition = ResponseAssertion.splitColumnDefinition(columnName.substring(ResponseAssertion.COLUMN_PREFIX.length()));
+            JsonPathExpression compiledPath = null;
+            ResponseAssertion assertion = null;
+            String compileError = null;
+            try {
+                compiledPath = JsonPathExpression.compile(definition[0]);
+                assertion = definition[1].isEmpty() ? null : ResponseAssertion.of(compiledPath, definition[1]);
+            } catch (IllegalArgumentException e) {
+                compileError = e.getMessage();
+            }
+            this.path = compiledPath;
+            this.columnAssertion = assertion;
+            this.error = compileError;
+        }
+
+        /**
+         * @return The assertion of a row, or null if the row has none.
+         * @throws IllegalArgumentException If the column or the cell is not a valid assertion.
+         */
+        ResponseAssertion assertionFor(String cellValue) {
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            return cellValue.trim().isEmpty() ? columnAssertion : ResponseAssertion.of(path, cellValue);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package Utilities;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An assertion on a response body from an "Assert:" column, e.g. "$.data.id=123" or "$.items.length()>0".
+ * The comparison is one of =, !=, &gt;, &lt;, &gt;= and &lt;=; a comparison without an operator means =.
+ * Expected values are read as JSON where possible, so "=true" and "=\"abc\"" compare with the JSON value,
+ * and a plain word such as "=abc" compares with the text of the actual value. The ordering operators compare numbers.
+ */
+public class ResponseAssertion {
+
+    public static final String COLUMN_PREFIX = "assert:";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    private static final String[] OPERATORS = {">=", "<=", "!=", "==", "=", ">", "<"};
+
+    private final JsonPathExpression path;
+    private final String operator;
+    private final JsonNode expected;
+
+    private ResponseAssertion(JsonPathExpression path, String operator, JsonNode expected) {
+        this.path = path;
+        this.operator = operator;
+        this.expected = expected;
+    }
+
+    /**
+     * Splits the text after "Assert:" in a column name into its JSONPath and its optional comparison.
+     *
+     * @param columnDefinition The column name without the "Assert:" prefix, e.g. "$.items.length()>0".
+     * @return The path and the comparison, which is empty when the column name only holds a path.
+     */
+    public static String[] splitColumnDefinition(String columnDefinition) {
+        boolean quoted = false;
+        for (int i = 0; i < columnDefinition.length(); i++) {
+            char c = columnDefinition.charAt(i);
+            if (c == '\'' || c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '=' || c == '!' || c == '<' || c == '>')) {
+                return new String[]{columnDefinition.substring(0, i).trim(), columnDefinition.substring(i).trim()};
+            }
+        }
+        return new String[]{columnDefinition.trim(), ""};
+    }
+
+    /**
+     * Creates an assertion from a compiled path and a comparison.
+     *
+     * @param path       The compiled path of the value to check.
+     * @param comparison The operator and expected value, e.g. "&gt;0", or a bare expected value.
+     * @return The assertion.
+     * @throws IllegalArgumentException If an ordering operator is not followed by a number.
+     */
+    public static ResponseAssertion of(JsonPathExpression path, String comparison) {
+        String trimmed = comparison.trim();
+        String operator = "=";
+        for (String candidate : OPERATORS) {
+            if (trimmed.startsWith(candidate)) {
+                operator = candidate.equals("==") ? "=" : candidate;
+                trimmed = trimmed.substring(candidate.length()).trim();
+                break;
+            }
+        }
+        JsonNode expected;
+        try {
+            expected = trimmed.isEmpty() ? TextNode.valueOf("") : objectMapper.readTree(trimmed);
+        } catch (IOException e) {
+            expected = TextNode.valueOf(trimmed);
+        }
+        boolean ordering = !operator.equals("=") && !operator.equals("!=");
+        if (ordering && !expected.isNumber()) {
+            throw new IllegalArgumentException("Assert " + path + ": '" + operator + "' needs a number but got '" + trimmed + "'");
+        }
+        return new ResponseAssertion(path, operator, expected);
+    }
+
+    /**
+     * Checks the assertions of a row against the values extracted from a response body.
+     *
+     * @param assertions The assertions of the row.
+     * @param values     The values extracted from the body by {@link JsonPathExpression#extract}, keyed by path.
+     *                   They must include the paths of all the assertions.
+     * @return A description of each failed assertion; empty if all passed.
+     */
+    public static List<String> check(List<ResponseAssertion> assertions, Map<JsonPathExpression, JsonNode> values) {
+        List<String> failures = new ArrayList<>();
+        for (ResponseAssertion assertion : assertions) {
+            JsonNode actual = values.get(assertion.path);
+            if (actual == null) {
+                failures.add(assertion + ": no value found");
+            } else if (!assertion.matches(actual)) {
+                failures.add(assertion + ": actual " + actual);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return The compiled path of the value to check.
+     */
+    public JsonPathExpression getPath() {
+        return path;
+    }
+
+    private boolean matches(JsonNode actual) {
+        switch (operator) {
+            case "=":
+                return isEqual(actual);
+            case "!=":
+                return !isEqual(actual);
+            default:
+                if (!actual.isNumber()) {
+                    return false;
+                }
+                int order = actual.decimalValue().compareTo(expected.decimalValue());
+                switch (operator) {
+                    case ">":
+                        return order > 0;
+                    case "<":
+                        return order < 0;
+                    case ">=":
+                        return order >= 0;
+                    default:
+                        return order <= 0;
+                }
+        }
+    }
+
+    private boolean isEqual(JsonNode actual) {
+        if (actual.isNumber() && expected.isNumber()) {
+            return actual.decimalValue().compareTo(expected.decimalValue()) == 0;
+        }
+        if (actual.isValueNode() && expected.isValueNode() && !actual.isNull() && !expected.isNull()) {
+            return actual.asText().equals(expected.asText());
+        }
+        return actual.equals(expected);
+    }
+
+    @Override
+    public String toString() {
+        return path + operator + (expected.isTextual() ? expected.asText() : expected.toString());
+    }
+}
@@ -0,0 +1,127 @@
+package Utilities;
+
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Decides how much of a response body ends up in the report.
+ * Passing rows keep no body at all. Failing rows keep a preview of at most "responsePreviewChars" characters
+ * (default 2000) in the ResponseBody column; when the body is longer and "spillResponses" is not false, the full
+ * body is written to a directory of its own under the "responses" directory next to the report, and the
+ * ResponseBodyFile column links to it. The directory is named after the report and the sheet, so runs of other sheets
+ * or shards that share the results directory never overwrite each other's body files.
+ * Bodies are only pretty-printed when "prettyPrintResponses" is true.
+ */
+public class ResponseCapture {
+
+    public static final String BODY_FILE_COLUMN = "ResponseBodyFile";
+    private static final String SPILL_DIRECTORY = "responses";
+
+    private final Path spillDirectory;
+    // The path of the spill directory relative to the report directory, as linked from the report
+    private final String spillLinkPrefix;
+    private final int previewChars;
+    private final boolean prettyPrint;
+    private volatile boolean spillDirectoryCreated;
+
+    /**
+     * Creates a capture policy.
+     *
+     * @param reportDirectory The directory of the report, or null to never write full bodies to disk.
+     * @param spillName       The name of the directory of the body files, unique to the report and the sheet.
+     * @param previewChars    The maximum number of characters of a body kept in the report.
+     * @param prettyPrint     Whether to pretty-print the body before taking the preview.
+     */
+    public ResponseCapture(Path reportDirectory, String spillName, int previewChars, boolean prettyPrint) {
+        // The name ends up in a file link of the report, so it is kept to characters that need no escaping
+        String directoryName = spillName == null ? "" : spillName.replaceAll("[^A-Za-z0-9._-]", "_");
+        this.spillDirectory = reportDirectory == null ? null : reportDirectory.resolve(SPILL_DIRECTORY).resolve(directoryName);
+        this.spillLinkPrefix = SPILL_DIRECTORY + "/" + directoryName + "/";
+        this.previewChars = Math.max(0, previewChars);
+        this.prettyPrint = prettyPrint;
+    }
+
+    /**
+     * Creates the capture policy of a run from its settings.
+     *
+     * @param runConfig       The run configuration to read the settings from.
+     * @param reportDirectory The directory of the report, or null to never write full bodies to disk.
+     * @param spillName       The name of the directory of the body files, unique to the report and the sheet,
+     *                        or null if reportDirectory is null.
+     * @return The capture policy.
+     */
+    public static ResponseCapture fromConfig(RunConfig runConfig, Path reportDirectory, String spillName) {
+        return new ResponseCapture(runConfig.getBoolean("spillResponses", true) ? reportDirectory : null, spillName,
+                runConfig.getInt("responsePreviewChars", 2000), runConfig.getBoolean("prettyPrintResponses", false));
+    }
+
+    /**
+     * Puts the ResponseBody and ResponseBodyFile columns of a row.
+     *
+     * @param rowNumber  The one-based number of the row in the sheet, used to name the body file.
+     * @param response   The response.
+     * @param failed     Whether the row failed; the body of a passing row is not kept.
+     * @param requestMap The row to update.
+     */
+    public void capture(long rowNumber, Response response, boolean failed, Map<String, String> requestMap) {
+        requestMap.put("ResponseBody", "");
+        requestMap.put(BODY_FILE_COLUMN, "");
+        if (!failed) {
+            return;
+        }
+
+        byte[] body = response.asByteArray();
+        String preview;
+        boolean truncated;
+        if (prettyPrint) {
+            preview = response.asPrettyString();
+            truncated = preview.length() > previewChars;
+        } else {
+            // A UTF-8 character takes at most 4 bytes, so only the start of the body has to be decoded
+            int previewBytes = (int) Math.min(body.length, previewChars * 4L);
+            preview = new String(body, 0, previewBytes, StandardCharsets.UTF_8);
+            truncated = previewBytes < body.length || preview.length() > previewChars;
+        }
+        if (!truncated) {
+            requestMap.put("ResponseBody", preview);
+            return;
+        }
+
+        preview = preview.substring(0, Math.min(preview.length(), previewChars)) + "\n... [truncated, " + body.length + " bytes]";
+        requestMap.put("ResponseBody", preview);
+        if (spillDirectory != null) {
+            String fileName = "row-" + rowNumber + extensionFor(response.getContentType());
+            try {
+                writeSpillFile(fileName, body);
+                requestMap.put(BODY_FILE_COLUMN, spillLinkPrefix + fileName);
+            } catch (IOException e) {
+                System.err.println("Unable to write response body to " + spillDirectory.resolve(fileName) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeSpillFile(String fileName, byte[] body) throws IOException {
+        if (!spillDirectoryCreated) {
+            Files.createDirectories(spillDirectory);
+            spillDirectoryCreated = true;
+        }
+        Files.write(spillDirectory.resolve(fileName), body);
+    }
+
+    private static String extensionFor(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (type.contains("json")) {
+            return ".json";
+        } else if (type.contains("xml")) {
+            return ".xml";
+        } else if (type.contains("html")) {
+            return ".html";
+        }
+        return ".txt";
+    }
+}
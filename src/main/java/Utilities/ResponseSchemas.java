@@ -0,0 +1,93 @@
+package Utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates response bodies against the JSON schemas named in the ResponseSchema column.
+ * Schema files are resolved below src/test/resources, and each is loaded and compiled once per run into a
+ * concurrent cache, so validating a response never re-reads or re-parses its schema.
+ */
+public class ResponseSchemas {
+
+    private static final int MAX_REPORTED_MESSAGES = 5;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JsonSchemaFactory schemaFactory = JsonSchemaFactory.byDefault();
+    private static final Map<String, JsonSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Forgets the compiled schemas, so a new run picks up edited schema files.
+     */
+    public static void clear() {
+        schemas.clear();
+    }
+
+    /**
+     * Returns the compiled schema of a schema file, loading and compiling it on first use.
+     *
+     * @param schemaName The path of the schema file relative to src/test/resources.
+     * @return The compiled schema.
+     * @throws IllegalArgumentException If the file cannot be read or is not a valid schema.
+     */
+    public static JsonSchema get(String schemaName) {
+        JsonSchema schema = schemas.get(schemaName);
+        if (schema != null) {
+            return schema;
+        }
+        File schemaFile = new File(System.getProperty("user.dir") + "/src/test/resources/" + schemaName);
+        try {
+            schema = schemaFactory.getJsonSchema(JsonLoader.fromFile(schemaFile));
+        } catch (IOException | ProcessingException e) {
+            throw new IllegalArgumentException("Unable to load JSON schema " + schemaFile + ": " + e.getMessage(), e);
+        }
+        JsonSchema existing = schemas.putIfAbsent(schemaName, schema);
+        return existing != null ? existing : schema;
+    }
+
+    /**
+     * Validates a response body against a schema.
+     *
+     * @param schemaName The path of the schema file relative to src/test/resources.
+     * @param body       The response body.
+     * @return null if the body is valid, otherwise a description of the first violations.
+     */
+    public static String validate(String schemaName, byte[] body) {
+        JsonNode instance;
+        try {
+            instance = objectMapper.readTree(body);
+        } catch (IOException e) {
+            return "Response body is not JSON: " + e.getMessage();
+        }
+        try {
+            ProcessingReport report = get(schemaName).validate(instance);
+            if (report.isSuccess()) {
+                return null;
+            }
+            List<String> violations = new ArrayList<>();
+            for (ProcessingMessage message : report) {
+                if (violations.size() == MAX_REPORTED_MESSAGES) {
+                    violations.add("...");
+                    break;
+                }
+                String pointer = message.asJson().path("instance").path("pointer").asText();
+                violations.add((pointer.isEmpty() ? "/" : pointer) + ": " + message.getMessage());
+            }
+            return String.join("\n", violations);
+        } catch (ProcessingException | IllegalArgumentException e) {
+            return "Schema validation error: " + e.getMessage();
+        }
+    }
+}
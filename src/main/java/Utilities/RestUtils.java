@@ -1,10 +1,14 @@
 package Utilities;
 
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for performing REST API requests using RestAssured library.
@@ -13,368 +17,106 @@ public class RestUtils {
 
     /*-----------------------------REQUEST SPECIFICATIONS--------------------------------*/
 
-    /**
-     * Builds a request specification for a POST request.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification postRequestSpecification(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a POST request with query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification postRequestSpecificationWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a POST request with path parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification postRequestSpecificationWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a POST request with path and query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification postRequestSpecificationWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a GET request.
-     *
-     * @param baseUrl  the base URL of the API
-     * @param basePath the base path of the API
-     * @param headers  the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification getRequestSpecification(String baseUrl, String basePath, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a GET request with path parameters.
-     *
-     * @param baseUrl       the base URL of the API
-     * @param basePath      the base path of the API
-     * @param pathParameters the path parameters for the request
-     * @param headers       the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification getRequestSpecificationWithPathParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a GET request with query parameters.
-     *
-     * @param baseUrl       the base URL of the API
-     * @param basePath      the base path of the API
-     * @param queryParameters the query parameters for the request
-     * @param headers       the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification getRequestSpecificationWithQueryParams(String baseUrl, String basePath, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .queryParams(queryParameters)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a GET request with path and query parameters.
-     *
-     * @param baseUrl       the base URL of the API
-     * @param basePath      the base path of the API
-     * @param pathParameters the path parameters for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers       the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification getRequestSpecificationWithPathAndQueryParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .queryParams(queryParameters)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a PUT request.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification putRequestSpecification(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a PUT request with path parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification putRequestSpecificationWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a PUT request with query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification putRequestSpecificationWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a PUT request with path and query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification putRequestSpecificationWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a DELETE request.
-     *
-     * @param baseUrl  the base URL of the API
-     * @param basePath the base path of the API
-     * @param headers  the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification deleteRequestSpecification(String baseUrl, String basePath, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a DELETE request with path parameters.
-     *
-     * @param baseUrl       the base URL of the API
-     * @param basePath      the base path of the API
-     * @param pathParameters the path parameters for the request
-     * @param headers       the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification deleteRequestSpecificationWithPathParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .headers(headers);
-    }
-
-    /**
-     * Builds a request specification for a DELETE request with query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
-     */
-    private static RequestSpecification deleteRequestSpecificationWithQueryParams(String baseUrl, String basePath, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .queryParams(queryParameters)
-                .headers(headers);
-    }
+    private static final Map<String, RequestSpecification> baseRequestSpecifications = new ConcurrentHashMap<>();
 
     /**
-     * Builds a request specification for a DELETE request with path and query parameters.
+     * Returns the base request specification for a base URL, building it on first use.
+     * The base specification holds everything shared by the requests of an environment, so a request only
+     * has to add its own path, parameters, headers and body. When {@link ConnectionPoolManager} is configured,
+     * the specification sends its requests through the shared connection pool.
      *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param pathParameters the path parameters for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
+     * @param baseUrl the base URL of the API
+     * @return the cached base request specification
      */
-    private static RequestSpecification deleteRequestSpecificationWithPathAndQueryParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .queryParams(queryParameters)
-                .headers(headers);
+    private static RequestSpecification baseRequestSpecification(String baseUrl) {
+        return baseRequestSpecifications.computeIfAbsent(baseUrl, url -> {
+            RequestSpecBuilder builder = new RequestSpecBuilder().setBaseUri(url);
+            RestAssuredConfig pooledConfig = ConnectionPoolManager.getRestAssuredConfig();
+            if (pooledConfig != null) {
+                builder.setConfig(pooledConfig);
+            }
+            return builder.build();
+        });
     }
 
     /**
-     * Builds a request specification for a PATCH request.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param headers        the headers for the request
-     * @return the request specification
+     * Discards the cached base request specifications, so they are rebuilt with the current connection pool.
      */
-    private static RequestSpecification patchRequestSpecification(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .headers(headers)
-                .body(requestPayload);
+    static void clearBaseRequestSpecifications() {
+        baseRequestSpecifications.clear();
     }
 
     /**
-     * Builds a request specification for a PATCH request with path parameters.
+     * Builds a request specification on top of the cached base specification of the base URL.
+     * Parameters, headers and payload are only added when present.
      *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param headers        the headers for the request
+     * @param baseUrl         the base URL of the API
+     * @param basePath        the base path of the API
+     * @param requestPayload  the payload for the request, can be null
+     * @param pathParameters  the path parameters for the request, can be null
+     * @param queryParameters the query parameters for the request, can be null
+     * @param headers         the headers for the request, can be null
      * @return the request specification
      */
-    private static RequestSpecification patchRequestSpecificationWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .headers(headers)
-                .body(requestPayload);
-    }
-
-    /**
-     * Builds a request specification for a PATCH request with query parameters.
-     *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
+    public static RequestSpecification buildRequestSpecification(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
+        RequestSpecification requestSpecification = RestAssured.given()
+                .spec(baseRequestSpecification(baseUrl))
+                .basePath(basePath);
+        if (pathParameters != null && !pathParameters.isEmpty()) {
+            requestSpecification.pathParams(pathParameters);
+        }
+        if (queryParameters != null && !queryParameters.isEmpty()) {
+            requestSpecification.queryParams(queryParameters);
+        }
+        if (headers != null && !headers.isEmpty()) {
+            requestSpecification.headers(headers);
+        }
+        if (requestPayload != null) {
+            requestSpecification.body(requestPayload);
+        }
+        return requestSpecification;
+    }
+
+    /**
+     * Performs a request with any HTTP method. The exchange is logged according to the {@link RequestLogger}
+     * settings, counting 4xx and 5xx responses as failures.
+     *
+     * @param method          the HTTP method of the request
+     * @param baseUrl         the base URL of the API
+     * @param basePath        the base path of the API
+     * @param requestPayload  the payload for the request, can be null
+     * @param pathParameters  the path parameters for the request, can be null
+     * @param queryParameters the query parameters for the request, can be null
+     * @param headers         the headers for the request, can be null
+     * @return the response of the request
      */
-    private static RequestSpecification patchRequestSpecificationWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
+    public static Response perform(HttpMethod method, String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
+        ExchangeLog exchangeLog = RequestLogger.start();
+        Response response = perform(method, baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers, exchangeLog);
+        RequestLogger.complete(exchangeLog, response);
+        return response;
     }
 
     /**
-     * Builds a request specification for a PATCH request with path and query parameters.
+     * Performs a request with any HTTP method, logging the exchange into the given buffer.
+     * The caller decides whether the buffer is written by passing it to {@link RequestLogger#complete}.
      *
-     * @param baseUrl        the base URL of the API
-     * @param basePath       the base path of the API
-     * @param requestPayload the payload for the request
-     * @param pathParameters the path parameters for the request
-     * @param queryParameters the query parameters for the request
-     * @param headers        the headers for the request
-     * @return the request specification
+     * @param method          the HTTP method of the request
+     * @param baseUrl         the base URL of the API
+     * @param basePath        the base path of the API
+     * @param requestPayload  the payload for the request, can be null
+     * @param pathParameters  the path parameters for the request, can be null
+     * @param queryParameters the query parameters for the request, can be null
+     * @param headers         the headers for the request, can be null
+     * @param exchangeLog     the buffer the exchange is logged into, or null to not log it
+     * @return the response of the request
      */
-    private static RequestSpecification patchRequestSpecificationWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        return RestAssured.given().log().all()
-                .baseUri(baseUrl)
-                .basePath(basePath)
-                .pathParams(pathParameters)
-                .queryParams(queryParameters)
-                .headers(headers)
-                .body(requestPayload);
+    public static Response perform(HttpMethod method, String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers, ExchangeLog exchangeLog) {
+        RequestSpecification requestSpecification = buildRequestSpecification(baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
+        if (exchangeLog != null) {
+            requestSpecification.filters(exchangeLog.getFilters());
+        }
+        return requestSpecification.request(Method.valueOf(method.name())).then().extract().response();
     }
 
     /*-----------------------------METHODS PERFORMING REQUESTS--------------------------------*/
@@ -389,8 +131,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPost(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        RequestSpecification requestSpecification = postRequestSpecification(baseUrl, basePath, requestPayload, headers);
-        return requestSpecification.post().then().log().all().extract().response();
+        return perform(HttpMethod.POST, baseUrl, basePath, requestPayload, null, null, headers);
     }
 
     /**
@@ -404,8 +145,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPostWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = postRequestSpecificationWithQueryParams(baseUrl, basePath, requestPayload, queryParameters, headers);
-        return requestSpecification.post().then().log().all().extract().response();
+        return perform(HttpMethod.POST, baseUrl, basePath, requestPayload, null, queryParameters, headers);
     }
 
     /**
@@ -419,8 +159,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPostWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = postRequestSpecificationWithPathParams(baseUrl, basePath, requestPayload, pathParameters, headers);
-        return requestSpecification.post().then().log().all().extract().response();
+        return perform(HttpMethod.POST, baseUrl, basePath, requestPayload, pathParameters, null, headers);
     }
 
     /**
@@ -435,8 +174,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPostWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = postRequestSpecificationWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
-        return requestSpecification.post().then().log().all().extract().response();
+        return perform(HttpMethod.POST, baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
     }
 
     /**
@@ -448,8 +186,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performGet(String baseUrl, String basePath, Map<String, String> headers) {
-        RequestSpecification requestSpecification = getRequestSpecification(baseUrl, basePath, headers);
-        return requestSpecification.get().then().log().all().extract().response();
+        return perform(HttpMethod.GET, baseUrl, basePath, null, null, null, headers);
     }
 
     /**
@@ -462,8 +199,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performGetWithPathParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = getRequestSpecificationWithPathParams(baseUrl, basePath, pathParameters, headers);
-        return requestSpecification.get().then().log().all().extract().response();
+        return perform(HttpMethod.GET, baseUrl, basePath, null, pathParameters, null, headers);
     }
 
     /**
@@ -476,8 +212,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performGetWithQueryParams(String baseUrl, String basePath, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = getRequestSpecificationWithQueryParams(baseUrl, basePath, queryParameters, headers);
-        return requestSpecification.get().then().log().all().extract().response();
+        return perform(HttpMethod.GET, baseUrl, basePath, null, null, queryParameters, headers);
     }
 
     /**
@@ -491,8 +226,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performGetWithPathAndQueryParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = getRequestSpecificationWithPathAndQueryParams(baseUrl, basePath, pathParameters, queryParameters, headers);
-        return requestSpecification.get().then().log().all().extract().response();
+        return perform(HttpMethod.GET, baseUrl, basePath, null, pathParameters, queryParameters, headers);
     }
 
     /**
@@ -505,8 +239,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPut(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        RequestSpecification requestSpecification = putRequestSpecification(baseUrl, basePath, requestPayload, headers);
-        return requestSpecification.put().then().log().all().extract().response();
+        return perform(HttpMethod.PUT, baseUrl, basePath, requestPayload, null, null, headers);
     }
 
     /**
@@ -520,8 +253,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPutWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = putRequestSpecificationWithPathParams(baseUrl, basePath, requestPayload, pathParameters, headers);
-        return requestSpecification.put().then().log().all().extract().response();
+        return perform(HttpMethod.PUT, baseUrl, basePath, requestPayload, pathParameters, null, headers);
     }
 
     /**
@@ -535,8 +267,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPutWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = putRequestSpecificationWithQueryParams(baseUrl, basePath, requestPayload, queryParameters, headers);
-        return requestSpecification.put().then().log().all().extract().response();
+        return perform(HttpMethod.PUT, baseUrl, basePath, requestPayload, null, queryParameters, headers);
     }
 
     /**
@@ -551,8 +282,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPutWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = putRequestSpecificationWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
-        return requestSpecification.put().then().log().all().extract().response();
+        return perform(HttpMethod.PUT, baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
     }
 
     /**
@@ -564,8 +294,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performDelete(String baseUrl, String basePath, Map<String, String> headers) {
-        RequestSpecification requestSpecification = deleteRequestSpecification(baseUrl, basePath, headers);
-        return requestSpecification.delete().then().log().all().extract().response();
+        return perform(HttpMethod.DELETE, baseUrl, basePath, null, null, null, headers);
     }
 
     /**
@@ -578,8 +307,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performDeleteWithPathParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = deleteRequestSpecificationWithPathParams(baseUrl, basePath, pathParameters, headers);
-        return requestSpecification.delete().then().log().all().extract().response();
+        return perform(HttpMethod.DELETE, baseUrl, basePath, null, pathParameters, null, headers);
     }
 
     /**
@@ -592,8 +320,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performDeleteWithQueryParams(String baseUrl, String basePath, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = deleteRequestSpecificationWithQueryParams(baseUrl, basePath, queryParameters, headers);
-        return requestSpecification.delete().then().log().all().extract().response();
+        return perform(HttpMethod.DELETE, baseUrl, basePath, null, null, queryParameters, headers);
     }
 
     /**
@@ -607,8 +334,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performDeleteWithPathAndQueryParams(String baseUrl, String basePath, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = deleteRequestSpecificationWithPathAndQueryParams(baseUrl, basePath, pathParameters, queryParameters, headers);
-        return requestSpecification.delete().then().log().all().extract().response();
+        return perform(HttpMethod.DELETE, baseUrl, basePath, null, pathParameters, queryParameters, headers);
     }
 
 
@@ -622,8 +348,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPatch(String baseUrl, String basePath, Object requestPayload, Map<String, String> headers) {
-        RequestSpecification requestSpecification = patchRequestSpecification(baseUrl, basePath, requestPayload, headers);
-        return requestSpecification.patch().then().log().all().extract().response();
+        return perform(HttpMethod.PATCH, baseUrl, basePath, requestPayload, null, null, headers);
     }
 
     /**
@@ -637,8 +362,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPatchWithPathParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = patchRequestSpecificationWithPathParams(baseUrl, basePath, requestPayload, pathParameters, headers);
-        return requestSpecification.patch().then().log().all().extract().response();
+        return perform(HttpMethod.PATCH, baseUrl, basePath, requestPayload, pathParameters, null, headers);
     }
 
     /**
@@ -652,8 +376,7 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPatchWithQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = patchRequestSpecificationWithQueryParams(baseUrl, basePath, requestPayload, queryParameters, headers);
-        return requestSpecification.patch().then().log().all().extract().response();
+        return perform(HttpMethod.PATCH, baseUrl, basePath, requestPayload, null, queryParameters, headers);
     }
 
     /**
@@ -668,7 +391,6 @@ public class RestUtils {
      * @return the response of the request
      */
     public static Response performPatchWithPathAndQueryParams(String baseUrl, String basePath, Object requestPayload, Map<String, String> pathParameters, Map<String, String> queryParameters, Map<String, String> headers) {
-        RequestSpecification requestSpecification = patchRequestSpecificationWithPathAndQueryParams(baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
-        return requestSpecification.patch().then().log().all().extract().response();
+        return perform(HttpMethod.PATCH, baseUrl, basePath, requestPayload, pathParameters, queryParameters, headers);
     }
 }
\ No newline at end of file
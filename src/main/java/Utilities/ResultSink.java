@@ -0,0 +1,232 @@
+package Utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Writes report rows while the requests of a run are still executing.
+ * Workers push each completed row into a bounded queue; a single writer thread puts the rows back into
+ * sheet order and hands them to the report writer, flushing every few rows. Rows that complete before an earlier
+ * row are held until that row arrives, so a slow row holds back the rows after it. The caller bounds them by
+ * reserving a slot for every row it starts and freeing it from the {@code onRowWritten} callback, which runs once
+ * the row has been written; the buffered results then never exceed the number of slots, however long the run
+ * or the stall.
+ */
+public class ResultSink implements Closeable {
+
+    private static final int FLUSH_EVERY_ROWS = 100;
+    private static final LinkedHashMap<String, String> SKIPPED_ROW = new LinkedHashMap<>();
+
+    private final BlockingQueue<IndexedRow> queue;
+    private final ReportWriter writer;
+    private final UnaryOperator<LinkedHashMap<String, String>> rowTransformer;
+    private final Runnable onRowWritten;
+    private final Map<Long, LinkedHashMap<String, String>> outOfOrderRows = new HashMap<>();
+    private final Map<String, Supplier<? extends List<? extends Map<String, String>>>> summaries = new LinkedHashMap<>();
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private volatile IOException writeError;
+    private long nextRowIndex;
+    private long rowsWritten;
+    private long rowsFlushed;
+    private boolean closed;
+
+    /**
+     * Creates a sink and starts its writer thread.
+     *
+     * @param writer         The report writer the rows are written to. It is closed when the sink is closed.
+     * @param capacity       The number of completed rows that may wait in the queue before workers block.
+     * @param rowTransformer Transformation applied to each row before it is written, e.g. masking. Can be null.
+     * @param onRowWritten   Called once for every submitted row after it has been written, or discarded after a
+     *                       write error; not called for skipped rows. Can be null.
+     */
+    public ResultSink(ReportWriter writer, int capacity, UnaryOperator<LinkedHashMap<String, String>> rowTransformer,
+                      Runnable onRowWritten) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.rowTransformer = rowTransformer;
+        this.onRowWritten = onRowWritten;
+        this.writerThread = new Thread(this::drain, "result-sink");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        // Write what has been collected so far if the JVM is shut down in the middle of the run
+        this.shutdownHook = new Thread(this::closeQuietly, "result-sink-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Hands a completed row to the sink, blocking while the queue is full.
+     *
+     * @param rowIndex The zero-based position of the row in the sheet. Every index must be submitted exactly once.
+     * @param row      The result row.
+     * @throws InterruptedException If the thread is interrupted while waiting for space in the queue.
+     */
+    public void submit(long rowIndex, LinkedHashMap<String, String> row) throws InterruptedException {
+        queue.put(new IndexedRow(rowIndex, row));
+    }
+
+    /**
+     * Marks a row that is not part of the report, e.g. a row run by another shard, so the rows after it
+     * are not held back waiting for it.
+     *
+     * @param rowIndex The zero-based position of the row in the sheet.
+     * @throws InterruptedException If the thread is interrupted while waiting for space in the queue.
+     */
+    public void skip(long rowIndex) throws InterruptedException {
+        queue.put(new IndexedRow(rowIndex, SKIPPED_ROW));
+    }
+
+    /**
+     * Adds a summary that is written to the report after the last row, see {@link ReportWriter#writeSummary}.
+     * The rows are only computed when the sink is closed, so they can cover every request of the run.
+     *
+     * @param summaryName The name of the summary.
+     * @param rows        Supplies the summary rows.
+     */
+    public synchronized void addSummary(String summaryName, Supplier<? extends List<? extends Map<String, String>>> rows) {
+        summaries.put(summaryName, rows);
+    }
+
+    /**
+     * Returns the number of rows written to the report so far.
+     *
+     * @return The number of written rows.
+     */
+    public synchronized long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Waits for the queued rows to be written, writes the summaries and closes the report writer.
+     * Rows still missing from the sheet order are written in index order after the rows before them.
+     *
+     * @throws IOException If a row or the report could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down
+        }
+        try {
+            queue.put(IndexedRow.END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            synchronized (this) {
+                if (writeError == null) {
+                    for (Long index : new TreeSet<>(outOfOrderRows.keySet())) {
+                        write(outOfOrderRows.get(index));
+                    }
+                    for (Map.Entry<String, Supplier<? extends List<? extends Map<String, String>>>> summary : summaries.entrySet()) {
+                        writer.writeSummary(summary.getKey(), summary.getValue().get());
+                    }
+                }
+                outOfOrderRows.clear();
+            }
+        } finally {
+            writer.close();
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println("Error occurred while writing report: " + e.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                IndexedRow indexedRow = queue.take();
+                if (indexedRow == IndexedRow.END) {
+                    return;
+                }
+                if (writeError != null) {
+                    // Keep draining so workers never block on a sink that can no longer write
+                    rowDone(indexedRow.row);
+                    continue;
+                }
+                try {
+                    synchronized (this) {
+                        outOfOrderRows.put(indexedRow.index, indexedRow.row);
+                        LinkedHashMap<String, String> row;
+                        while ((row = outOfOrderRows.remove(nextRowIndex)) != null) {
+                            write(row);
+                            nextRowIndex++;
+                        }
+                        if (rowsWritten - rowsFlushed >= FLUSH_EVERY_ROWS) {
+                            writer.flush();
+                            rowsFlushed = rowsWritten;
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Error occurred while writing report row: " + e.getMessage());
+                    writeError = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+                    synchronized (this) {
+                        outOfOrderRows.values().forEach(this::rowDone);
+                        outOfOrderRows.clear();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(LinkedHashMap<String, String> row) throws IOException {
+        if (row == SKIPPED_ROW) {
+            return;
+        }
+        try {
+            writer.writeRow(rowTransformer != null ? rowTransformer.apply(row) : row);
+            rowsWritten++;
+        } finally {
+            rowDone(row);
+        }
+    }
+
+    private void rowDone(LinkedHashMap<String, String> row) {
+        if (row != SKIPPED_ROW && onRowWritten != null) {
+            onRowWritten.run();
+        }
+    }
+
+    /**
+     * A result row together with its position in the sheet.
+     */
+    private static class IndexedRow {
+        static final IndexedRow END = new IndexedRow(-1, null);
+
+        final long index;
+        final LinkedHashMap<String, String> row;
+
+        IndexedRow(long index, LinkedHashMap<String, String> row) {
+            this.index = index;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package Utilities;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed request is sent again and how long to wait before the next attempt.
+ * A request is retried when its response has one of the "retry.statusCodes" (default 429, 502, 503, 504) or the
+ * transport throws one of the "retry.exceptions" (default IOException, which covers refused connections and
+ * timeouts), matched by simple or full class name against the exception, its superclasses and its causes.
+ * "retry.maxAttempts" (default 1, no retries) counts the first attempt. Only idempotent methods are retried unless
+ * "retry.nonIdempotent" is true, since a POST that timed out may already have been processed.
+ * Attempts are spaced by exponential backoff with full jitter: attempt n waits a random time up to
+ * min("retry.maxDelayMs", "retry.baseDelayMs" * 2^(n-1)), so clients that failed together do not retry together.
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Set<Integer> statusCodes;
+    private final List<String> exceptionNames;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final boolean retryNonIdempotent;
+
+    /**
+     * Creates a retry policy.
+     *
+     * @param maxAttempts        The maximum number of attempts of a request, including the first one.
+     * @param statusCodes        The response status codes that are retried.
+     * @param exceptionNames     The simple or full class names of the exceptions that are retried.
+     * @param baseDelayMillis    The upper bound of the wait before the first retry.
+     * @param maxDelayMillis     The upper bound of the wait before any retry.
+     * @param retryNonIdempotent Whether POST and PATCH requests are retried as well.
+     */
+    public RetryPolicy(int maxAttempts, Set<Integer> statusCodes, List<String> exceptionNames, long baseDelayMillis,
+                       long maxDelayMillis, boolean retryNonIdempotent) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.statusCodes = statusCodes;
+        this.exceptionNames = exceptionNames;
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.retryNonIdempotent = retryNonIdempotent;
+    }
+
+    /**
+     * Creates the retry policy of a run from its settings.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     * @return The retry policy.
+     * @throws IllegalArgumentException If a setting is not valid.
+     */
+    public static RetryPolicy fromConfig(RunConfig runConfig) {
+        Set<Integer> statusCodes = new HashSet<>();
+        for (String statusCode : splitList(runConfig.getString("retry.statusCodes", "429,502,503,504"))) {
+            try {
+                statusCodes.add(Integer.parseInt(statusCode));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Setting 'retry.statusCodes' must be a list of status codes but contains: " + statusCode);
+            }
+        }
+        return new RetryPolicy(runConfig.getInt("retry.maxAttempts", 1), statusCodes,
+                splitList(runConfig.getString("retry.exceptions", "IOException")),
+                runConfig.getLong("retry.baseDelayMs", 200), runConfig.getLong("retry.maxDelayMs", 5000),
+                runConfig.getBoolean("retry.nonIdempotent", false));
+    }
+
+    /**
+     * @param statusCode The status code of a response.
+     * @return Whether the status code is a transient failure that is worth retrying.
+     */
+    public boolean isRetryableStatus(int statusCode) {
+        return statusCodes.contains(statusCode);
+    }
+
+    /**
+     * @param error The exception thrown by the transport, possibly wrapped.
+     * @return Whether the exception is a transient failure that is worth retrying.
+     */
+    public boolean isRetryableException(Throwable error) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable cause = error; cause != null && seen.add(cause); cause = cause.getCause()) {
+            for (Class<?> type = cause.getClass(); type != null; type = type.getSuperclass()) {
+                if (exceptionNames.contains(type.getSimpleName()) || exceptionNames.contains(type.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether a request that failed transiently is sent again.
+     *
+     * @param method  The method of the request.
+     * @param attempt The number of the attempt that failed, starting at 1.
+     * @return Whether to make another attempt.
+     */
+    public boolean shouldRetry(HttpMethod method, int attempt) {
+        return attempt < maxAttempts && (retryNonIdempotent || method.isIdempotent());
+    }
+
+    /**
+     * Returns the wait before the next attempt.
+     *
+     * @param attempt The number of the attempt that failed, starting at 1.
+     * @return A random wait between 0 and the backoff of the attempt, in milliseconds.
+     */
+    public long backoffMillis(int attempt) {
+        long ceiling = baseDelayMillis << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelayMillis) {
+            ceiling = maxDelayMillis;
+        }
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,88 @@
+package Utilities;
+
+import java.util.Properties;
+
+/**
+ * Resolves run settings from JVM system properties first and the loaded environment properties second.
+ * This lets a setting such as "threads" live in Dev.properties and still be overridden with -Dthreads=16.
+ */
+public class RunConfig {
+
+    private final Properties environmentProperties;
+
+    /**
+     * Creates a run configuration backed by the given environment properties.
+     *
+     * @param environmentProperties The loaded environment properties. Can be null if no environment was loaded.
+     */
+    public RunConfig(Properties environmentProperties) {
+        this.environmentProperties = environmentProperties != null ? environmentProperties : new Properties();
+    }
+
+    /**
+     * Returns the value of a setting as a string.
+     *
+     * @param key          The name of the setting.
+     * @param defaultValue The value returned when the setting is not defined.
+     * @return The trimmed setting value, or the default value.
+     */
+    public String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            value = environmentProperties.getProperty(key);
+        }
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns the value of a setting as an int.
+     *
+     * @param key          The name of the setting.
+     * @param defaultValue The value returned when the setting is not defined.
+     * @return The setting value, or the default value.
+     * @throws IllegalArgumentException If the setting is not a valid integer.
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting '" + key + "' must be an integer but was: " + value);
+        }
+    }
+
+    /**
+     * Returns the value of a setting as a long.
+     *
+     * @param key          The name of the setting.
+     * @param defaultValue The value returned when the setting is not defined.
+     * @return The setting value, or the default value.
+     * @throws IllegalArgumentException If the setting is not a valid long.
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting '" + key + "' must be a number but was: " + value);
+        }
+    }
+
+    /**
+     * Returns the value of a setting as a boolean.
+     *
+     * @param key          The name of the setting.
+     * @param defaultValue The value returned when the setting is not defined.
+     * @return The setting value, or the default value.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,175 @@
+package Utilities;
+
+import java.util.*;
+
+/**
+ * Selects the rows of a sheet that one shard of a split run executes, so several JVMs or CI agents can each run a
+ * part of the same workbook and write their own report.
+ * Settings used: "shard.count" (default 1, no sharding), "shard.index" (0 to shard.count - 1) and "shard.strategy":
+ * "hash" (default) spreads rows by a stable hash of their cells, "range" gives each shard a contiguous block of rows.
+ * Rows that must run together stay on one shard: rows joined by "Extract:" variables (see {@link RequestChains}) and
+ * rows with the same value in a "Group" column. Such a unit of rows is placed by its first row.
+ */
+public class ShardSelector {
+
+    public static final ShardSelector ALL = new ShardSelector(0, 1, false);
+
+    private static final String GROUP_COLUMN = "group";
+
+    private final int index;
+    private final int count;
+    private final boolean range;
+    private BitSet selectedRows;
+
+    private ShardSelector(int index, int count, boolean range) {
+        this.index = index;
+        this.count = count;
+        this.range = range;
+    }
+
+    /**
+     * Reads the shard settings of a run.
+     *
+     * @param runConfig The run configuration to read the settings from.
+     * @return The selector of the shard; {@link #ALL} when the run is not sharded.
+     * @throws IllegalArgumentException If the settings are not a valid shard.
+     */
+    public static ShardSelector fromConfig(RunConfig runConfig) {
+        int count = runConfig.getInt("shard.count", 1);
+        int index = runConfig.getInt("shard.index", 0);
+        String strategy = runConfig.getString("shard.strategy", "hash");
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Setting 'shard.index' must be between 0 and " + (count - 1) + " for shard.count " + count + " but was: " + index);
+        }
+        if (!strategy.equalsIgnoreCase("hash") && !strategy.equalsIgnoreCase("range")) {
+            throw new IllegalArgumentException("Setting 'shard.strategy' must be hash or range but was: " + strategy);
+        }
+        return count == 1 ? ALL : new ShardSelector(index, count, strategy.equalsIgnoreCase("range"));
+    }
+
+    /**
+     * @return Whether the run executes only a part of the sheet.
+     */
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @return The suffix that keeps the report names of the shards apart, e.g. "_shard-2-of-4"; empty if not sharded.
+     */
+    public String getReportSuffix() {
+        return isSharded() ? "_shard-" + index + "-of-" + count : "";
+    }
+
+    /**
+     * Decides which rows of the sheet belong to this shard. Every shard reads the whole sheet, so they all
+     * arrive at the same split without talking to each other.
+     *
+     * @param planner The planner of the sheet, which knows the variables each row extracts and references.
+     * @param rows    The rows of the sheet.
+     */
+    public void selectRows(RequestPlanner planner, SheetRowReader rows) {
+        if (!isSharded()) {
+            return;
+        }
+        String groupColumn = null;
+        for (String columnName : rows.getColumnNames()) {
+            if (columnName.toLowerCase().equals(GROUP_COLUMN)) {
+                groupColumn = columnName;
+            }
+        }
+
+        int[] parent = new int[1024];
+        int[] hashes = new int[1024];
+        Map<String, Integer> firstRowOfGroup = new HashMap<>();
+        Map<String, Integer> lastExtractingRow = new HashMap<>();
+        int rowCount = 0;
+        while (rows.hasNext()) {
+            LinkedHashMap<String, String> row = rows.next();
+            if (rowCount == parent.length) {
+                parent = Arrays.copyOf(parent, rowCount * 2);
+                hashes = Arrays.copyOf(hashes, rowCount * 2);
+            }
+            parent[rowCount] = rowCount;
+            hashes[rowCount] = contentHash(row);
+
+            String group = groupColumn == null ? null : row.get(groupColumn);
+            if (group != null && !group.trim().isEmpty()) {
+                Integer firstRow = firstRowOfGroup.putIfAbsent(group.trim(), rowCount);
+                if (firstRow != null) {
+                    union(parent, firstRow, rowCount);
+                }
+            }
+            for (String variable : planner.referencedVariables(row)) {
+                Integer producer = lastExtractingRow.get(variable);
+                if (producer != null) {
+                    union(parent, producer, rowCount);
+                }
+            }
+            for (String variable : planner.extractedVariables(row)) {
+                lastExtractingRow.put(variable, rowCount);
+            }
+            rowCount++;
+        }
+
+        selectedRows = new BitSet(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            int unit = find(parent, row);
+            int shard = range ? (int) ((long) unit * count / rowCount) : Math.floorMod(mix(hashes[unit]), count);
+            if (shard == index) {
+                selectedRows.set(row);
+            }
+        }
+        System.out.println("Shard " + index + " of " + count + " runs " + selectedRows.cardinality() + " of " + rowCount + " rows");
+    }
+
+    /**
+     * @param rowIndex The zero-based position of the row in the sheet.
+     * @return Whether this shard executes the row.
+     */
+    public boolean includes(long rowIndex) {
+        return selectedRows == null || selectedRows.get((int) rowIndex);
+    }
+
+    /**
+     * Hashes the cells of a row with {@link String#hashCode()}, which is the same on every JVM.
+     */
+    private static int contentHash(LinkedHashMap<String, String> row) {
+        int hash = 1;
+        for (String value : row.values()) {
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads the bits of a hash (the MurmurHash3 finalizer), so similar rows do not end up on the same shard.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static int find(int[] parent, int row) {
+        while (parent[row] != row) {
+            parent[row] = parent[parent[row]];
+            row = parent[row];
+        }
+        return row;
+    }
+
+    private static void union(int[] parent, int first, int second) {
+        int firstRoot = find(parent, first);
+        int secondRoot = find(parent, second);
+        // The earlier row becomes the root, so a unit is placed by its first row
+        if (firstRoot < secondRoot) {
+            parent[secondRoot] = firstRoot;
+        } else if (secondRoot < firstRoot) {
+            parent[firstRoot] = secondRoot;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Utilities;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Sequential reader over the data rows of a sheet. Each row maps column names to cell values in column order.
+ */
+public interface SheetRowReader extends Iterator<LinkedHashMap<String, String>>, Closeable {
+
+    /**
+     * Returns the column names from the header row.
+     *
+     * @return The column names in sheet order.
+     */
+    List<String> getColumnNames();
+
+    /**
+     * Returns the number of the row last returned by {@link #next()} in the sheet, counting the header row as 1.
+     * Blank rows are skipped by the readers, so this is not always the number of rows read plus one.
+     *
+     * @return The one-based sheet row number, or 0 before the first row has been read.
+     */
+    long getRowNumber();
+}
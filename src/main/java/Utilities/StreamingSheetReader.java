@@ -0,0 +1,323 @@
+package Utilities;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the rows of an xlsx sheet using the XSSF event (SAX) model instead of loading the workbook DOM.
+ * The sheet is parsed on a background thread into a small bounded queue, so the first row is available
+ * as soon as it has been parsed and memory use does not grow with the number of rows.
+ * The first row of the sheet is used as the header row, and every following non-blank row is returned
+ * as a map from column name to formatted cell value.
+ */
+public class StreamingSheetReader implements SheetRowReader {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final SheetRow END_OF_SHEET = new SheetRow(0, new LinkedHashMap<>());
+
+    private final OPCPackage opcPackage;
+    private final BlockingQueue<SheetRow> rows = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final CountDownLatch headerParsed = new CountDownLatch(1);
+    private final Thread parserThread;
+    private volatile List<String> columnNames = Collections.emptyList();
+    private volatile Exception parseError;
+    private volatile boolean closed;
+    private SheetRow nextRow;
+    private long rowNumber;
+    private boolean finished;
+
+    private StreamingSheetReader(OPCPackage opcPackage, InputStream sheetStream, StylesTable styles,
+                                 ReadOnlySharedStringsTable sharedStrings, String sheetName) {
+        this.opcPackage = opcPackage;
+        this.parserThread = new Thread(() -> parse(sheetStream, styles, sharedStrings), "sheet-reader-" + sheetName);
+        this.parserThread.setDaemon(true);
+    }
+
+    /**
+     * Opens the first sheet of an xlsx file for streaming, e.g. the result rows of a report.
+     *
+     * @param file The xlsx file to read.
+     * @return A reader returning the data rows of the sheet.
+     * @throws IOException If the file cannot be read or has no sheet.
+     */
+    public static StreamingSheetReader open(File file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Opens the given sheet of an xlsx file for streaming.
+     *
+     * @param file      The xlsx file to read.
+     * @param sheetName The name of the sheet to read, or null for the first sheet.
+     * @return A reader returning the data rows of the sheet.
+     * @throws IOException If the file cannot be read or does not contain the sheet.
+     */
+    public static StreamingSheetReader open(File file, String sheetName) throws IOException {
+        OPCPackage opcPackage;
+        try {
+            opcPackage = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException | RuntimeException e) {
+            throw new IOException("Unable to open workbook " + file + ": " + e.getMessage(), e);
+        }
+
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheetStream = sheets.next();
+                if (sheetName == null || sheets.getSheetName().equals(sheetName)) {
+                    StreamingSheetReader reader = new StreamingSheetReader(opcPackage, sheetStream, styles, sharedStrings, sheets.getSheetName());
+                    reader.parserThread.start();
+                    return reader;
+                }
+                sheetStream.close();
+            }
+            throw new IOException(sheetName == null ? "Workbook " + file + " has no sheet" : "Sheet '" + sheetName + "' not found in workbook " + file);
+        } catch (IOException e) {
+            opcPackage.revert();
+            throw e;
+        } catch (OpenXML4JException | SAXException | RuntimeException e) {
+            opcPackage.revert();
+            throw new IOException("Unable to read workbook " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the column names from the header row, waiting until the header row has been parsed.
+     *
+     * @return The column names in sheet order.
+     */
+    @Override
+    public List<String> getColumnNames() {
+        try {
+            headerParsed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rethrowParseError();
+        return columnNames;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow != null) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        try {
+            SheetRow row = rows.take();
+            if (row == END_OF_SHEET) {
+                finished = true;
+                rethrowParseError();
+                return false;
+            }
+            nextRow = row;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading sheet rows", e);
+        }
+    }
+
+    @Override
+    public LinkedHashMap<String, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SheetRow row = nextRow;
+        nextRow = null;
+        rowNumber = row.rowNumber;
+        return row.values;
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Returns the remaining rows as a sequential stream. Closing the stream closes the reader.
+     *
+     * @return A stream of the remaining data rows.
+     */
+    public Stream<LinkedHashMap<String, String>> stream() {
+        Spliterator<LinkedHashMap<String, String>> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Stops parsing and releases the workbook.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        rows.clear();
+        try {
+            parserThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        opcPackage.revert();
+    }
+
+    private void parse(InputStream sheetStream, StylesTable styles, ReadOnlySharedStringsTable sharedStrings) {
+        try (InputStream stream = sheetStream) {
+            XMLReader parser = SAXHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings, new RowCollector(), new DataFormatter(), false));
+            parser.parse(new InputSource(stream));
+        } catch (ReaderClosedException e) {
+            // The consumer closed the reader before the end of the sheet
+        } catch (IOException | SAXException | ParserConfigurationException | RuntimeException e) {
+            parseError = e;
+        } finally {
+            headerParsed.countDown();
+            if (!closed) {
+                enqueue(END_OF_SHEET);
+            }
+        }
+    }
+
+    private void enqueue(SheetRow row) {
+        try {
+            while (!rows.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new ReaderClosedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReaderClosedException();
+        }
+    }
+
+    private void rethrowParseError() {
+        Exception error = parseError;
+        if (error != null) {
+            throw new IllegalStateException("Error occurred while reading sheet: " + error.getMessage(), error);
+        }
+    }
+
+    /**
+     * Collects the cells of each row from the SAX callbacks and hands complete rows to the queue.
+     */
+    private class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private boolean headerRow = true;
+        private String[] values;
+        private int currentColumn;
+        private boolean blankRow;
+
+        @Override
+        public void startRow(int rowNum) {
+            if (closed) {
+                throw new ReaderClosedException();
+            }
+            values = headerRow ? null : new String[columnNames.size()];
+            currentColumn = -1;
+            blankRow = true;
+            if (headerRow) {
+                columnNames = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headerRow) {
+                headerRow = false;
+                columnNames = Collections.unmodifiableList(columnNames);
+                headerParsed.countDown();
+                return;
+            }
+            if (blankRow) {
+                return;
+            }
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            for (int col = 0; col < values.length; col++) {
+                row.put(columnNames.get(col), values[col] == null ? "" : values[col]);
+            }
+            // SAX row numbers are zero-based
+            enqueue(new SheetRow(rowNum + 1, row));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            currentColumn = cellReference != null ? new CellReference(cellReference).getCol() : currentColumn + 1;
+            if (headerRow) {
+                while (columnNames.size() < currentColumn) {
+                    columnNames.add("");
+                }
+                columnNames.add(formattedValue);
+            } else if (currentColumn < values.length) {
+                values[currentColumn] = formattedValue;
+                if (formattedValue != null && !formattedValue.isEmpty()) {
+                    blankRow = false;
+                }
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Headers and footers are not part of the data
+        }
+    }
+
+    /**
+     * A parsed data row with its one-based row number in the sheet.
+     */
+    private static class SheetRow {
+        final long rowNumber;
+        final LinkedHashMap<String, String> values;
+
+        SheetRow(long rowNumber, LinkedHashMap<String, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Thrown from the SAX callbacks to stop parsing once the reader has been closed.
+     */
+    private static class ReaderClosedException extends RuntimeException {
+        ReaderClosedException() {
+            super(null, null, false, false);
+        }
+    }
+}
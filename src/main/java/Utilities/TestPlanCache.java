@@ -0,0 +1,344 @@
+package Utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the rows of a sheet as a compiled binary test plan next to the workbook.
+ * The plan file name contains the sheet name and a SHA-256 prefix of the workbook contents, so editing the
+ * workbook automatically invalidates its plans. A cached plan is read through a memory-mapped file instead of POI.
+ * When no plan exists the sheet is streamed with {@link StreamingSheetReader} and the plan is written while the
+ * rows are being consumed; it is only published once every row has been read.
+ * <p>
+ * Layout: the magic "DDTP", a format version, {@code int columnCount} and the column names, then each row as a
+ * {@code byte 1} marker followed by {@code int rowNumber} (its one-based row number in the sheet) and its values,
+ * and a final {@code byte 0}. Strings are stored as
+ * {@code int byteLength} and their UTF-8 bytes.
+ */
+public class TestPlanCache {
+
+    private static final int MAGIC = 0x44445450; // "DDTP"
+    private static final int VERSION = 2;
+    private static final String PLAN_EXTENSION = ".ddplan";
+    // Workbook checksums of the current run, so each workbook is only hashed once
+    private static final Map<Path, String> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the rows of a sheet, using the compiled plan when one exists for the current workbook contents.
+     *
+     * @param workbook  The xlsx workbook.
+     * @param sheetName The name of the sheet.
+     * @return A reader over the data rows of the sheet.
+     * @throws IOException If neither the plan nor the workbook can be read.
+     */
+    public static SheetRowReader openSheetRows(File workbook, String sheetName) throws IOException {
+        Path planFile = planFileFor(workbook.toPath(), sheetName, workbookChecksum(workbook.toPath()));
+        if (Files.isRegularFile(planFile)) {
+            try {
+                return new CompiledPlanReader(planFile);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable test plan " + planFile + ": " + e.getMessage());
+            }
+        }
+        return new CompilingReader(StreamingSheetReader.open(workbook, sheetName), planFile);
+    }
+
+    /**
+     * Returns the plan file for a sheet of a workbook with the given checksum.
+     */
+    private static Path planFileFor(Path workbook, String sheetName, String checksum) {
+        return workbook.resolveSibling(planFilePrefix(workbook, sheetName) + checksum + PLAN_EXTENSION);
+    }
+
+    private static String planFilePrefix(Path workbook, String sheetName) {
+        return "." + workbook.getFileName() + "." + fileNameKey(sheetName) + ".";
+    }
+
+    /**
+     * Encodes a name, such as a sheet name, for use in a file name. Letters, digits and '-' are kept and every other
+     * UTF-8 byte is written as '_' and two hex digits, so different names always get different keys.
+     *
+     * @param name The name.
+     * @return The encoded name, which contains no '.'.
+     */
+    static String fileNameKey(String name) {
+        StringBuilder key = new StringBuilder(name.length() + 8);
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-') {
+                key.append(c);
+            } else {
+                key.append('_').append(String.format("%02x", b & 0xff));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Forgets the workbook checksums computed so far, so the next run sees the current workbook contents.
+     */
+    public static void clearChecksums() {
+        checksums.clear();
+    }
+
+    /**
+     * Returns the checksum of a workbook, computed once per run (see {@link #clearChecksums()}).
+     *
+     * @param workbook The workbook.
+     * @return The first 16 hex digits of the SHA-256 digest of the workbook.
+     * @throws IOException If the workbook cannot be read.
+     */
+    static String workbookChecksum(Path workbook) throws IOException {
+        Path key = workbook.toAbsolutePath().normalize();
+        String checksum = checksums.get(key);
+        if (checksum == null) {
+            checksum = checksumOf(key);
+            checksums.put(key, checksum);
+        }
+        return checksum;
+    }
+
+    /**
+     * Computes the first 16 hex digits of the SHA-256 digest of a file.
+     */
+    static String checksumOf(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            while (inputStream.read(buffer) != -1) {
+                // Reading updates the digest
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 8; i++) {
+            checksum.append(String.format("%02x", hash[i]));
+        }
+        return checksum.toString();
+    }
+
+    /**
+     * Reads the rows of a compiled plan from a memory-mapped file.
+     */
+    private static class CompiledPlanReader implements SheetRowReader {
+        private final MappedByteBuffer buffer;
+        private final List<String> columnNames;
+        private byte[] scratch = new byte[256];
+        private long rowNumber;
+        private boolean finished;
+
+        CompiledPlanReader(Path planFile) throws IOException {
+            try (FileChannel channel = FileChannel.open(planFile, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Test plan is too large to be mapped");
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a test plan of version " + VERSION);
+            }
+            int columnCount = buffer.getInt();
+            List<String> names = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                names.add(readString());
+            }
+            columnNames = Collections.unmodifiableList(names);
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+            if (buffer.get(buffer.position()) == 0) {
+                finished = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public LinkedHashMap<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            buffer.get();
+            rowNumber = buffer.getInt();
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            for (String columnName : columnNames) {
+                row.put(columnName, readString());
+            }
+            return row;
+        }
+
+        @Override
+        public long getRowNumber() {
+            return rowNumber;
+        }
+
+        private String readString() {
+            int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+        }
+    }
+
+    /**
+     * Passes the rows of the sheet through while writing them to a new plan file.
+     */
+    private static class CompilingReader implements SheetRowReader {
+        private final StreamingSheetReader sheetReader;
+        private final Path planFile;
+        private Path tempFile;
+        private DataOutputStream outputStream;
+        private boolean completed;
+
+        CompilingReader(StreamingSheetReader sheetReader, Path planFile) {
+            this.sheetReader = sheetReader;
+            this.planFile = planFile;
+            try {
+                tempFile = Files.createTempFile(planFile.getParent(), planFile.getFileName().toString(), ".tmp");
+                outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024));
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                List<String> columnNames = sheetReader.getColumnNames();
+                outputStream.writeInt(columnNames.size());
+                for (String columnName : columnNames) {
+                    writeString(columnName);
+                }
+            } catch (IOException e) {
+                abandonPlan(e);
+            }
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return sheetReader.getColumnNames();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = sheetReader.hasNext();
+            if (!hasNext) {
+                completed = true;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public LinkedHashMap<String, String> next() {
+            LinkedHashMap<String, String> row = sheetReader.next();
+            if (outputStream != null) {
+                try {
+                    outputStream.writeByte(1);
+                    outputStream.writeInt((int) sheetReader.getRowNumber());
+                    for (String columnName : sheetReader.getColumnNames()) {
+                        writeString(row.getOrDefault(columnName, ""));
+                    }
+                } catch (IOException e) {
+                    abandonPlan(e);
+                }
+            }
+            return row;
+        }
+
+        @Override
+        public long getRowNumber() {
+            return sheetReader.getRowNumber();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                sheetReader.close();
+            } finally {
+                if (outputStream != null) {
+                    publishPlan();
+                }
+            }
+        }
+
+        private void publishPlan() {
+            try {
+                if (!completed) {
+                    throw new IOException("the sheet was not read to the end");
+                }
+                outputStream.writeByte(0);
+                outputStream.close();
+                outputStream = null;
+                Files.move(tempFile, planFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                deleteStalePlans();
+            } catch (IOException e) {
+                abandonPlan(e);
+            }
+        }
+
+        /**
+         * Removes the plans compiled for older contents of the same workbook and sheet.
+         */
+        private void deleteStalePlans() throws IOException {
+            String workbookName = planFile.getFileName().toString();
+            String prefix = workbookName.substring(0, workbookName.length() - PLAN_EXTENSION.length() - 16);
+            try (DirectoryStream<Path> plans = Files.newDirectoryStream(planFile.getParent(), prefix + "*" + PLAN_EXTENSION)) {
+                for (Path plan : plans) {
+                    if (!plan.equals(planFile)) {
+                        Files.deleteIfExists(plan);
+                    }
+                }
+            }
+        }
+
+        private void abandonPlan(IOException cause) {
+            if (completed) {
+                System.err.println("Unable to write test plan " + planFile + ": " + cause.getMessage());
+            }
+            try {
+                if (outputStream != null) {
+                    outputStream.close();
+                }
+                if (tempFile != null) {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException e) {
+                // Nothing more can be done about a leftover temporary file
+            }
+            outputStream = null;
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            outputStream.writeInt(bytes.length);
+            outputStream.write(bytes);
+        }
+    }
+}
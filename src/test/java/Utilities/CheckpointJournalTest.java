@@ -0,0 +1,141 @@
+package Utilities;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CheckpointJournalTest {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeMethod
+    public void createJournalFile() throws IOException {
+        directory = Files.createTempDirectory("checkpoint-journal");
+        file = directory.resolve("sheet.ddjournal");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteJournalFile() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    private static LinkedHashMap<String, String> row(long rowIndex) {
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("BasePath", "/users/" + rowIndex);
+        row.put("PassOrFail", "PASS");
+        row.put("ResponseBody", "line one\nline two, \u00fcn\u00efcode");
+        return row;
+    }
+
+    /**
+     * Writes a journal of the given number of rows, one run per row, and returns the file size after each record.
+     */
+    private long[] writeJournal(int rowCount) throws IOException {
+        long[] recordEnds = new long[rowCount];
+        CheckpointJournal.open(file, false, 1000).close();
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+                Map<String, String> variables = rowIndex == 1 ? Collections.singletonMap("userId", "42") : null;
+                journal.append(rowIndex, row(rowIndex), variables);
+            }
+            recordEnds[rowIndex] = Files.size(file);
+        }
+        return recordEnds;
+    }
+
+    @Test
+    public void resumeReadsTheRecordedRows() throws IOException {
+        writeJournal(3);
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 3);
+            CheckpointJournal.JournaledRow second = journal.takeJournaledRow(1);
+            Assert.assertEquals(second.getRow(), row(1));
+            Assert.assertEquals(second.getChainVariables(), Collections.singletonMap("userId", "42"));
+            Assert.assertTrue(journal.takeJournaledRow(0).getChainVariables().isEmpty());
+            Assert.assertNull(journal.takeJournaledRow(3));
+        }
+    }
+
+    @Test
+    public void resumeTruncatesARecordCutShort() throws IOException {
+        long[] recordEnds = writeJournal(3);
+        // Cut the last record in the middle of its payload, as a crash during a write would
+        truncate(recordEnds[1] + 10);
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 2);
+            Assert.assertEquals(journal.takeJournaledRow(0).getRow(), row(0));
+            Assert.assertEquals(journal.takeJournaledRow(1).getRow(), row(1));
+            Assert.assertNull(journal.takeJournaledRow(2));
+            Assert.assertEquals(Files.size(file), recordEnds[1]);
+
+            // Rows appended after the resume follow the last complete record
+            journal.append(2, row(2), null);
+        }
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 3);
+            Assert.assertEquals(journal.takeJournaledRow(2).getRow(), row(2));
+        }
+    }
+
+    @Test
+    public void resumeTruncatesARecordWithAWrongChecksum() throws IOException {
+        long[] recordEnds = writeJournal(3);
+        // Flip a byte inside the payload of the second record
+        try (RandomAccessFile journalFile = new RandomAccessFile(file.toFile(), "rw")) {
+            journalFile.seek(recordEnds[0] + 20);
+            int value = journalFile.read();
+            journalFile.seek(recordEnds[0] + 20);
+            journalFile.write(value ^ 0xFF);
+        }
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 1);
+            Assert.assertEquals(journal.takeJournaledRow(0).getRow(), row(0));
+            Assert.assertEquals(Files.size(file), recordEnds[0]);
+        }
+    }
+
+    @Test
+    public void resumeIgnoresAJournalOfAnotherVersion() throws IOException {
+        writeJournal(2);
+        try (RandomAccessFile journalFile = new RandomAccessFile(file.toFile(), "rw")) {
+            journalFile.seek(4);
+            journalFile.writeInt(1);
+        }
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 0);
+            // Only the header of a fresh journal is left
+            Assert.assertEquals(Files.size(file), 8);
+        }
+    }
+
+    @Test
+    public void openWithoutResumeStartsAfresh() throws IOException {
+        writeJournal(2);
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false, 1000)) {
+            Assert.assertEquals(journal.getJournaledRowCount(), 0);
+            Assert.assertEquals(Files.size(file), 8);
+        }
+    }
+
+    private void truncate(long size) throws IOException {
+        try (RandomAccessFile journalFile = new RandomAccessFile(file.toFile(), "rw")) {
+            journalFile.setLength(size);
+        }
+    }
+}
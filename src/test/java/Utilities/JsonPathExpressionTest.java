@@ -0,0 +1,128 @@
+package Utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class JsonPathExpressionTest {
+
+    private static Map<JsonPathExpression, JsonNode> extract(String body, String... expressions) throws IOException {
+        List<JsonPathExpression> paths = new ArrayList<>();
+        for (String expression : expressions) {
+            paths.add(JsonPathExpression.compile(expression));
+        }
+        return JsonPathExpression.extract(body.getBytes(StandardCharsets.UTF_8), paths);
+    }
+
+    private static JsonNode value(Map<JsonPathExpression, JsonNode> values, String expression) {
+        return values.get(JsonPathExpression.compile(expression));
+    }
+
+    @Test
+    public void lengthNextToDeeperPaths() throws IOException {
+        Map<JsonPathExpression, JsonNode> values = extract(
+                "{\"items\":[{\"id\":1},{\"id\":2},{\"id\":3}],\"meta\":{\"count\":3,\"name\":\"abc\"}}",
+                "$.items.length()", "$.items[1].id", "$.meta.count", "$.meta.name.length()", "$.meta.length()");
+
+        Assert.assertEquals(value(values, "$.items.length()").asInt(), 3);
+        Assert.assertEquals(value(values, "$.items[1].id").asInt(), 2);
+        Assert.assertEquals(value(values, "$.meta.count").asInt(), 3);
+        Assert.assertEquals(value(values, "$.meta.name.length()").asInt(), 3);
+        Assert.assertEquals(value(values, "$.meta.length()").asInt(), 2);
+    }
+
+    @Test
+    public void lengthCountsTheElementsAfterADeeperPathIsFound() throws IOException {
+        Map<JsonPathExpression, JsonNode> values = extract("{\"a\":[10,20,30,40]}", "$.a[0]", "$.a.length()");
+
+        Assert.assertEquals(value(values, "$.a[0]").asInt(), 10);
+        Assert.assertEquals(value(values, "$.a.length()").asInt(), 4);
+    }
+
+    @Test
+    public void duplicateExpressionsAreExtractedOnce() throws IOException {
+        Map<JsonPathExpression, JsonNode> values = extract("{\"a\":1,\"b\":{\"c\":2},\"z\":3}",
+                "$.a", "$.a", "$['a']", "$.b.c", "$.b.c", "$.z");
+
+        Assert.assertEquals(values.size(), 4);
+        Assert.assertEquals(value(values, "$.a").asInt(), 1);
+        Assert.assertEquals(value(values, "$['a']").asInt(), 1);
+        Assert.assertEquals(value(values, "$.b.c").asInt(), 2);
+        // The duplicates must not settle the walk before the last member is reached
+        Assert.assertEquals(value(values, "$.z").asInt(), 3);
+    }
+
+    @Test
+    public void missingMembersHaveNoValue() throws IOException {
+        Map<JsonPathExpression, JsonNode> values = extract("{\"a\":{\"b\":1},\"list\":[1,2]}",
+                "$.missing", "$.a.missing", "$.list[5]", "$.missing.length()", "$.a.b");
+
+        Assert.assertEquals(values.size(), 1);
+        Assert.assertEquals(value(values, "$.a.b").asInt(), 1);
+    }
+
+    @Test
+    public void pathsThroughAScalarHaveNoValue() throws IOException {
+        Map<JsonPathExpression, JsonNode> values = extract("{\"n\":5,\"s\":\"text\",\"t\":true,\"after\":1}",
+                "$.n.x", "$.s[0]", "$.n.length()", "$.t.length()", "$.s.length()", "$.after");
+
+        Assert.assertNull(value(values, "$.n.x"));
+        Assert.assertNull(value(values, "$.s[0]"));
+        Assert.assertNull(value(values, "$.n.length()"));
+        Assert.assertNull(value(values, "$.t.length()"));
+        Assert.assertEquals(value(values, "$.s.length()").asInt(), 4);
+        Assert.assertEquals(value(values, "$.after").asInt(), 1);
+    }
+
+    @Test
+    public void valuesResolvedInsideASubtree() throws IOException {
+        // "$.a" reads the subtree of a, and the deeper paths below it are resolved on that subtree
+        Map<JsonPathExpression, JsonNode> values = extract("{\"a\":{\"b\":[1,2],\"c\":\"xy\"}}",
+                "$.a", "$.a.b[1]", "$.a.b.length()", "$.a.c.length()", "$.a.missing");
+
+        Assert.assertEquals(value(values, "$.a").size(), 2);
+        Assert.assertEquals(value(values, "$.a.b[1]").asInt(), 2);
+        Assert.assertEquals(value(values, "$.a.b.length()").asInt(), 2);
+        Assert.assertEquals(value(values, "$.a.c.length()").asInt(), 2);
+        Assert.assertNull(value(values, "$.a.missing"));
+    }
+
+    @Test
+    public void walkStopsOnceEveryExpressionIsSettled() throws IOException {
+        // The body is cut short after "z", so it can only be extracted if the walk stops there
+        String truncatedBody = "{\"x\":{\"y\":1,\"q\":[1,2]},\"z\":3,\"tail\":[1,2,";
+
+        Map<JsonPathExpression, JsonNode> values = extract(truncatedBody, "$.x.y", "$.x.length()", "$.z");
+
+        Assert.assertEquals(value(values, "$.x.y").asInt(), 1);
+        Assert.assertEquals(value(values, "$.x.length()").asInt(), 2);
+        Assert.assertEquals(value(values, "$.z").asInt(), 3);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void walkReadsOnWhileAnExpressionIsUnsettled() throws IOException {
+        extract("{\"x\":{\"y\":1,\"q\":[1,2]},\"z\":3,\"tail\":[1,2,", "$.x.y", "$.x.length()", "$.missing");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidJsonIsRejected() throws IOException {
+        extract("not json", "$.a");
+    }
+
+    @Test
+    public void noExpressionsReadNothing() throws IOException {
+        Assert.assertTrue(JsonPathExpression.extract("not json".getBytes(StandardCharsets.UTF_8), Arrays.asList()).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthMustBeTheLastStep() {
+        JsonPathExpression.compile("$.a.length().b");
+    }
+}
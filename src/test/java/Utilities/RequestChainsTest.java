@@ -0,0 +1,126 @@
+package Utilities;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class RequestChainsTest {
+
+    private static final List<String> COLUMNS = Arrays.asList("BasePath", "Method", "RequestBody", "StatusCode",
+            "Extract:userId", "Extract:orderId");
+
+    private static LinkedHashMap<String, String> row(String basePath, String requestBody, String extractUserId, String extractOrderId) {
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        row.put("BasePath", basePath);
+        row.put("Method", "GET");
+        row.put("RequestBody", requestBody);
+        row.put("StatusCode", "200");
+        row.put("Extract:userId", extractUserId);
+        row.put("Extract:orderId", extractOrderId);
+        return row;
+    }
+
+    private static RequestChains build(List<LinkedHashMap<String, String>> rows) {
+        return RequestChains.build(new RequestPlanner(COLUMNS, "http://localhost"), rows.iterator());
+    }
+
+    @Test
+    public void rowsWithoutReferencesAreNotChained() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/orders", "", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 0);
+        Assert.assertFalse(chains.isChained(0));
+        Assert.assertFalse(chains.isChained(1));
+    }
+
+    @Test
+    public void referenceJoinsTheConsumerToItsProducer() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/status", "", "", ""));
+        rows.add(row("/users/${userId}", "", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 1);
+        Assert.assertTrue(chains.isChained(0));
+        Assert.assertFalse(chains.isChained(1));
+        Assert.assertTrue(chains.isChained(2));
+    }
+
+    @Test
+    public void referenceUsesTheLastEarlierProducer() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        // A reference before any producer joins nothing
+        rows.add(row("/orders/${orderId}", "", "", ""));
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/users/${userId}", "", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 1);
+        Assert.assertFalse(chains.isChained(0));
+        Assert.assertFalse(chains.isChained(1));
+        Assert.assertTrue(chains.isChained(2));
+        Assert.assertTrue(chains.isChained(3));
+    }
+
+    @Test
+    public void independentChainsStayApart() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/orders", "", "", "$.id"));
+        rows.add(row("/users/${userId}", "", "", ""));
+        rows.add(row("/orders/${orderId}", "", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 2);
+        for (long rowIndex = 0; rowIndex < 4; rowIndex++) {
+            Assert.assertTrue(chains.isChained(rowIndex));
+        }
+    }
+
+    @Test
+    public void rowUsingTwoChainsMergesThem() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/users/${userId}", "", "", ""));
+        rows.add(row("/orders", "", "", "$.id"));
+        rows.add(row("/orders/${orderId}", "", "", ""));
+        rows.add(row("/status", "", "", ""));
+        rows.add(row("/users/${userId}/orders", "{\"order\": \"${orderId}\"}", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 1);
+        Assert.assertTrue(chains.isChained(0));
+        Assert.assertTrue(chains.isChained(3));
+        Assert.assertFalse(chains.isChained(4));
+        Assert.assertTrue(chains.isChained(5));
+    }
+
+    @Test
+    public void rowCanConsumeAndProduce() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        rows.add(row("/users", "", "$.id", ""));
+        rows.add(row("/users/${userId}/orders", "", "", "$.orders[0].id"));
+        rows.add(row("/orders/${orderId}", "", "", ""));
+
+        RequestChains chains = build(rows);
+
+        Assert.assertEquals(chains.getChainCount(), 1);
+        Assert.assertTrue(chains.isChained(0));
+        Assert.assertTrue(chains.isChained(1));
+        Assert.assertTrue(chains.isChained(2));
+    }
+}